@@ -10,6 +10,9 @@ import TransformationsTab from './components/TransformationsTab';
 import Statistics from './components/Statistics';
 import { morphologyApi } from './services/api';
 
+// Nombre de racines détaillées dans l'onglet statistiques
+const ROOT_STATS_PAGE_SIZE = 200;
+
 const App: React.FC = () => {
   const [activeTab, setActiveTab] = useState<TabType>('generate');
   const [darkMode, setDarkMode] = useState(false);
@@ -48,9 +51,13 @@ const App: React.FC = () => {
     if (activeTab === 'statistics') {
       const fetchStatistics = async () => {
         try {
-          const data = await morphologyApi.getStatistics();
+          // Résumé (compteurs) et détail de la première page de racines
+          const [data, rootPage] = await Promise.all([
+            morphologyApi.getStatistics(),
+            morphologyApi.getRootStatistics(0, ROOT_STATS_PAGE_SIZE),
+          ]);
 
-          setRoots(Object.values(data.roots || {}));
+          setRoots(rootPage);
           setPatterns(new Array(data.totalPatterns).fill({}));
 
           setStats({
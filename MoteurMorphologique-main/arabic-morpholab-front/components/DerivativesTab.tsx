@@ -1,26 +1,13 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState } from 'react';
 import { morphologyApi } from '../services/api';
 import SearchableSelect from './SearchableSelect';
 
 const DerivativesTab: React.FC = () => {
-  const [rootsList, setRootsList] = useState<string[]>([]);
   const [root, setRoot] = useState('');
   const [derivatives, setDerivatives] = useState<string[]>([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
-  useEffect(() => {
-    const loadRoots = async () => {
-      try {
-        const res = await morphologyApi.getRoots();
-        setRootsList(res);
-      } catch (e) {
-        setError('Erreur chargement des racines');
-      }
-    };
-    loadRoots();
-  }, []);
-
   const handleFetch = async () => {
     if (!root) return;
     setLoading(true);
@@ -54,7 +41,7 @@ const DerivativesTab: React.FC = () => {
             value={root}
             onChange={setRoot}
             placeholder="Ex: دخل"
-            options={rootsList}
+            search={morphologyApi.searchRoots}
           />
           <button
             onClick={handleFetch}
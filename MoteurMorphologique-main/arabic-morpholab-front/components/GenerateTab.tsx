@@ -6,7 +6,6 @@ import SearchableSelect from './SearchableSelect';
 const GenerateTab: React.FC = () => {
   const [root, setRoot] = useState('');
   const [scheme, setScheme] = useState('');
-  const [rootsList, setRootsList] = useState<string[]>([]);
   const [schemesList, setSchemesList] = useState<string[]>([]);
   const [result, setResult] = useState<string | null>(null);
   const [resultScheme, setResultScheme] = useState<string | null>(null);
@@ -17,12 +16,7 @@ const GenerateTab: React.FC = () => {
   useEffect(() => {
     const fetchData = async () => {
       try {
-        const [r, s] = await Promise.all([
-          morphologyApi.getRoots(),
-          morphologyApi.getSchemes()
-        ]);
-        setRootsList(r);
-        setSchemesList(s);
+        setSchemesList(await morphologyApi.getSchemes());
       } catch (e) {
         console.error("Erreur chargement listes", e);
       }
@@ -132,7 +126,7 @@ setResults(formattedResults);
             value={root}
             onChange={setRoot}
             placeholder="Ex: كتب"
-            options={rootsList}
+            search={morphologyApi.searchRoots}
           />
           <SearchableSelect
             label="Schème (Optionnel)"
@@ -2,21 +2,46 @@ import React, { useState, useEffect, useRef } from 'react';
 
 interface Props {
   label: string;
-  options: string[];
+  options?: string[];
+  // Recherche côté serveur (par préfixe) : remplace le filtrage local de options
+  search?: (term: string) => Promise<string[]>;
   value: string;
   onChange: (val: string) => void;
   placeholder: string;
 }
 
-const SearchableSelect: React.FC<Props> = ({ label, options, value, onChange, placeholder }) => {
+const SEARCH_DELAY_MS = 150;
+
+const SearchableSelect: React.FC<Props> = ({ label, options = [], search, value, onChange, placeholder }) => {
   const [isOpen, setIsOpen] = useState(false);
   const [searchTerm, setSearchTerm] = useState('');
+  const [remoteOptions, setRemoteOptions] = useState<string[]>([]);
   const wrapperRef = useRef<HTMLDivElement>(null);
+  const searchRef = useRef(search);
+  searchRef.current = search;
+
+  // Recherche distante, relancée après une courte pause de saisie
+  useEffect(() => {
+    if (!isOpen || !searchRef.current) return;
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const res = await searchRef.current!(searchTerm.trim());
+        if (!cancelled) setRemoteOptions(res);
+      } catch (e) {
+        if (!cancelled) setRemoteOptions([]);
+      }
+    }, SEARCH_DELAY_MS);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [isOpen, searchTerm]);
 
   // Filtrer les options
-  const filteredOptions = options.filter(opt =>
-    opt.toLowerCase().includes(searchTerm.toLowerCase())
-  );
+  const filteredOptions = search
+    ? remoteOptions
+    : options.filter(opt => opt.toLowerCase().includes(searchTerm.toLowerCase()));
 
   // Fermer si clic extérieur
   useEffect(() => {
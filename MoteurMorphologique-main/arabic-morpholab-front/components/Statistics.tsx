@@ -30,7 +30,7 @@ const Statistics: React.FC<StatisticsProps> = ({ roots, patterns, stats }) => {
       <div className="grid grid-cols-3 gap-8">
         <div className="col-span-2 bg-white p-8 rounded-2xl shadow-sm border">
           <h3 className="text-lg font-bold text-slate-800 mb-6">
-            Production par Racine (AVL complet)
+            Production par Racine (AVL)
           </h3>
 
           <div className="space-y-4 max-h-[420px] overflow-y-auto pr-2">
@@ -1,29 +1,16 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState } from 'react';
 import { morphologyApi } from '../services/api';
 import { ValidationResult } from '../types';
 import SearchableSelect from './SearchableSelect';
 import ArabicInput from './ArabicInput';
 
 const ValidateTab: React.FC = () => {
-  const [rootsList, setRootsList] = useState<string[]>([]);
   const [root, setRoot] = useState('');
   const [word, setWord] = useState('');
   const [result, setResult] = useState<ValidationResult | null>(null);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
 
-  useEffect(() => {
-    const loadRoots = async () => {
-      try {
-        const res = await morphologyApi.getRoots();
-        setRootsList(res);
-      } catch (e) {
-        setError('Erreur chargement des racines');
-      }
-    };
-    loadRoots();
-  }, []);
-
   const handleValidate = async () => {
     if (!root || !word) return;
     setLoading(true);
@@ -57,7 +44,7 @@ const ValidateTab: React.FC = () => {
             value={root}
             onChange={setRoot}
             placeholder="Ex: كتب"
-            options={rootsList}
+            search={morphologyApi.searchRoots}
           />
           <ArabicInput
             label="Mot à valider"
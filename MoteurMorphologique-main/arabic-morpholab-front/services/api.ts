@@ -4,7 +4,8 @@ import {
   ValidationResult, 
   AVLNode, 
   HashTableStructure, 
-  TransformationGroup 
+  TransformationGroup,
+  TopStatistics
 } from '../types';
 
 /**
@@ -80,6 +81,19 @@ export const morphologyApi = {
     return handleResponse(response);
   },
 
+  /**
+   * Analyse un mot sans racine connue (racines et schèmes candidats).
+   * @param request Objet contenant le mot à analyser.
+   */
+  analyze: async (request: Pick<MorphologyRequest, 'word'>): Promise<ValidationResult[]> => {
+    const response = await fetch(`${BASE_URL}/analyze`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(request),
+    });
+    return handleResponse(response);
+  },
+
   /**
    * Récupère l'historique des dérivés validés pour une racine.
    * @param request Objet contenant la racine cible.
@@ -105,6 +119,45 @@ export const morphologyApi = {
     return handleResponse(response);
   },
 
+  /**
+   * Récupère une page de racines (ordre alphabétique) sans transférer la liste complète.
+   * @param offset Position de la première racine.
+   * @param limit Nombre maximal de racines.
+   */
+  getRootsPage: async (offset: number, limit = 100): Promise<string[]> => {
+    const params = new URLSearchParams({ offset: String(offset), limit: String(limit) });
+    const response = await fetch(`${BASE_URL}/roots?${params}`);
+    return handleResponse(response);
+  },
+
+  /**
+   * Nombre total de racines chargées (pour la pagination).
+   */
+  getRootCount: async (): Promise<number> => {
+    const response = await fetch(`${BASE_URL}/roots/count`);
+    return handleResponse(response);
+  },
+
+  /**
+   * Racines comprises entre deux bornes incluses (vide : pas de borne).
+   */
+  getRootsRange: async (from: string, to: string, limit = 100): Promise<string[]> => {
+    const params = new URLSearchParams({ from, to, limit: String(limit) });
+    const response = await fetch(`${BASE_URL}/roots/range?${params}`);
+    return handleResponse(response);
+  },
+
+  /**
+   * Autocomplétion : premières racines commençant par un préfixe (recherche côté serveur).
+   * @param prefix Le préfixe saisi (vide : premières racines).
+   * @param limit Nombre maximal de résultats.
+   */
+  searchRoots: async (prefix: string, limit = 50): Promise<string[]> => {
+    const params = new URLSearchParams({ prefix, limit: String(limit) });
+    const response = await fetch(`${BASE_URL}/roots/search?${params}`);
+    return handleResponse(response);
+  },
+
   /**
    * Récupère la liste de tous les schèmes disponibles.
    */
@@ -182,6 +235,26 @@ export const morphologyApi = {
     return handleResponse(response);
   },
 
+  /**
+   * Détail des dérivés validés par racine, page par page (ordre alphabétique).
+   * @param offset Position de la première racine.
+   * @param limit Nombre maximal de racines.
+   */
+  getRootStatistics: async (offset = 0, limit = 100): Promise<{ text: string; derivatives: string[] }[]> => {
+    const params = new URLSearchParams({ offset: String(offset), limit: String(limit) });
+    const response = await fetch(`${BASE_URL}/statistics/roots?${params}`);
+    return handleResponse(response);
+  },
+
+  /**
+   * Mots dérivés et racines les plus utilisés (classement approché, fréquence estimée et erreur).
+   * @param limit Nombre maximal d'éléments par classement.
+   */
+  getTopStatistics: async (limit = 100): Promise<TopStatistics> => {
+    const response = await fetch(`${BASE_URL}/statistics/top?limit=${limit}`);
+    return handleResponse(response);
+  },
+
   /**
    * Récupère l'état complet de la table de hachage (Visualisation).
    */
@@ -42,6 +42,8 @@ export interface ValidationResult {
   root: string | null;
   /** Le nom du schème détecté lors de la validation */
   scheme: string | null;
+  /** Tous les schèmes produisant le mot pour cette racine */
+  schemes?: string[];
 }
 
 /**
@@ -58,6 +60,8 @@ export interface AVLNode {
   root: string;
   /** Hauteur du nœud dans l'arbre pour l'équilibre */
   height: number;
+  /** Nombre de nœuds du sous-arbre (statistiques d'ordre) */
+  size?: number;
   /** Enfant gauche (optionnel) */
   left?: AVLNode;
   /** Enfant droit (optionnel) */
@@ -122,6 +126,25 @@ export interface Stats {
   density: string;
 }
 
+/**
+ * Élément d'un classement approché : fréquence estimée (majorant) et erreur maximale.
+ */
+export interface TopItem {
+  item: string;
+  count: number;
+  error: number;
+}
+
+/**
+ * Mots dérivés et racines les plus utilisés.
+ */
+export interface TopStatistics {
+  /** Nombre de compteurs par segment (0 : suivi désactivé) */
+  capacity: number;
+  words: TopItem[];
+  roots: TopItem[];
+}
+
 /**
  * ============================================================================
  * NAVIGATION ET UI
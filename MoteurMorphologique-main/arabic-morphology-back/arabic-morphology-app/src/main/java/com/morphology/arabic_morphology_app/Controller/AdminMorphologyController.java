@@ -1,7 +1,9 @@
 package com.morphology.arabic_morphology_app.Controller;
 
 import com.morphology.arabic_morphology_app.IService.MorphologyService;
+import com.morphology.arabic_morphology_app.model.CacheStats;
 import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.UsageStats;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -77,4 +79,28 @@ public class AdminMorphologyController {
                 ResponseEntity.ok().build() :
                 ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    //         SUIVI DU CACHE DE GÉNÉRATION
+    // ==========================================
+
+    /**
+     * Retourne les compteurs du cache de génération (racine, schème).
+     *
+     * @return Les statistiques du cache (succès, échecs, évictions, taux de succès).
+     */
+    @GetMapping("/cache")
+    public CacheStats cacheStats() {
+        return service.getCacheStats();
+    }
+
+    /**
+     * Retourne les compteurs de l'enregistrement différé des usages de dérivés.
+     *
+     * @return Les statistiques d'agrégation (déposés, abandonnés, appliqués, en attente).
+     */
+    @GetMapping("/usage")
+    public UsageStats usageStats() {
+        return service.getUsageStats();
+    }
+}
@@ -0,0 +1,43 @@
+package com.morphology.arabic_morphology_app.Controller;
+
+import com.morphology.arabic_morphology_app.IService.CorpusService;
+import com.morphology.arabic_morphology_app.model.CorpusReport;
+import com.morphology.arabic_morphology_app.model.CorpusRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contrôleur dédié à l'analyse hors ligne de corpus textuels.
+ * Le corpus est lu côté serveur depuis le répertoire configuré, sans transiter par HTTP.
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:3000")
+@RequestMapping("/api/morphology/corpus")
+public class CorpusController {
+
+    private final CorpusService service;
+
+    /**
+     * Injection de dépendance via constructeur.
+     *
+     * @param service Le service d'analyse de corpus.
+     */
+    public CorpusController(CorpusService service) {
+        this.service = service;
+    }
+
+    /**
+     * Analyse un fichier corpus et retourne les statistiques de couverture.
+     *
+     * @param request Le chemin du corpus (relatif au répertoire des corpus) et les options.
+     * @return Le rapport d'analyse, ou une erreur 400 si le fichier est invalide.
+     */
+    @PostMapping("/analyze")
+    public ResponseEntity<CorpusReport> analyze(@RequestBody CorpusRequest request) {
+        try {
+            return ResponseEntity.ok(service.analyze(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
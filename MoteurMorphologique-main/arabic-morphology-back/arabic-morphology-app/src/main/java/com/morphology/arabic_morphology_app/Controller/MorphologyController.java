@@ -1,12 +1,29 @@
 package com.morphology.arabic_morphology_app.Controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.morphology.arabic_morphology_app.IService.MorphologyService;
+import com.morphology.arabic_morphology_app.model.BatchGenerationRequest;
+import com.morphology.arabic_morphology_app.model.BatchGenerationResult;
+import com.morphology.arabic_morphology_app.model.BatchValidationSummary;
 import com.morphology.arabic_morphology_app.model.MorphologyRequest;
+import com.morphology.arabic_morphology_app.model.RootStat;
 import com.morphology.arabic_morphology_app.model.SchemeRequest;
 import com.morphology.arabic_morphology_app.model.StatisticsResponse;
+import com.morphology.arabic_morphology_app.model.TopStatistics;
 import com.morphology.arabic_morphology_app.model.ValidationResult;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,15 +37,30 @@ import java.util.Set;
 @RequestMapping("/api/morphology")
 public class MorphologyController {
 
+    /** Nombre de lignes NDJSON écrites entre deux vidages du flux de réponse. */
+    private static final int NDJSON_FLUSH_INTERVAL = 64;
+
+    /** Nombre de couples lus puis validés en parallèle à chaque étape d'une validation par lot. */
+    private static final int VALIDATION_CHUNK_SIZE = 1024;
+
+    /** Nombre maximal de racines renvoyées par une recherche par préfixe. */
+    private static final int MAX_SEARCH_LIMIT = 500;
+
+    /** Nombre maximal de racines renvoyées par une page ou un intervalle. */
+    private static final int MAX_PAGE_LIMIT = 1000;
+
     private final MorphologyService service;
+    private final ObjectMapper mapper;
 
     /**
      * Constructeur avec injection du service de morphologie.
      *
      * @param service Le service contenant la logique métier.
+     * @param mapper  Le sérialiseur JSON utilisé pour les réponses en flux (NDJSON).
      */
-    public MorphologyController(MorphologyService service) {
+    public MorphologyController(MorphologyService service, ObjectMapper mapper) {
         this.service = service;
+        this.mapper = mapper;
     }
 
     // ==========================================
@@ -69,6 +101,68 @@ public class MorphologyController {
         return service.generateAll(request.getRoot());
     }
 
+    /**
+     * Génère les dérivés d'une liste de racines et renvoie les résultats en flux NDJSON
+     * (une ligne par racine), au fur et à mesure de leur production.
+     *
+     * @param request Contient les racines et, optionnellement, les schèmes à appliquer.
+     * @return Le flux NDJSON des BatchGenerationResult.
+     */
+    @PostMapping(value = "/generate/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody generateBatch(@RequestBody BatchGenerationRequest request) {
+        List<String> roots = request.getRoots() != null ? request.getRoots() : List.of();
+        return out -> {
+            int written = 0;
+            for (String root : roots) {
+                writeNdjsonLine(out, generateBatchLine(root, request.getSchemes()));
+                if (++written % NDJSON_FLUSH_INTERVAL == 0) out.flush();
+            }
+            out.flush();
+        };
+    }
+
+    /**
+     * Variante en flux de la génération par lot : le corps contient une racine par ligne
+     * et n'est jamais chargé entièrement en mémoire.
+     *
+     * @param body    Le corps de la requête (une racine par ligne, lignes vides et # ignorées).
+     * @param schemes Filtre optionnel sur les schèmes.
+     * @return Le flux NDJSON des BatchGenerationResult.
+     */
+    @PostMapping(value = "/generate/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody generateBatchStream(InputStream body,
+                                                     @RequestParam(required = false) List<String> schemes) {
+        return out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String line;
+            int written = 0;
+            while ((line = reader.readLine()) != null) {
+                String root = line.trim();
+                if (root.isEmpty() || root.startsWith("#")) continue;
+                writeNdjsonLine(out, generateBatchLine(root, schemes));
+                if (++written % NDJSON_FLUSH_INTERVAL == 0) out.flush();
+            }
+            out.flush();
+        };
+    }
+
+    private BatchGenerationResult generateBatchLine(String root, List<String> schemes) {
+        try {
+            return new BatchGenerationResult(root, service.generateSchemes(root, schemes));
+        } catch (RuntimeException e) {
+            return new BatchGenerationResult(root, e.getMessage());
+        }
+    }
+
+    private void writeNdjsonLine(OutputStream out, Object value) throws IOException {
+        out.write(mapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
     // ==========================================
     //        VALIDATION ET HISTORIQUE
     // ==========================================
@@ -84,6 +178,99 @@ public class MorphologyController {
         return service.validate(request.getRoot(), request.getWord());
     }
 
+    /**
+     * Analyse un mot sans racine connue et retourne toutes les décompositions (racine, schème) possibles.
+     *
+     * @param request Contient le mot (word) à analyser.
+     * @return Liste des racines candidates confirmées, chacune avec ses schèmes.
+     */
+    @PostMapping("/analyze")
+    public List<ValidationResult> analyze(@RequestBody MorphologyRequest request) {
+        return service.analyze(request.getWord());
+    }
+
+    /**
+     * Valide en masse des couples (racine, mot) reçus en flux NDJSON ({"root":..., "word":...} par ligne).
+     * Les couples sont évalués en parallèle par paquets, et les ValidationResult sont renvoyés
+     * dans l'ordre d'entrée. Une ligne illisible produit une ligne {"line": n, "error": ...}.
+     * La dernière ligne est un BatchValidationSummary (compteurs et débit).
+     *
+     * @param body Le corps de la requête au format NDJSON.
+     * @return Le flux NDJSON des résultats suivi du bilan.
+     */
+    @PostMapping(value = "/validate/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody validateBatch(InputStream body) {
+        return out -> {
+            long start = System.nanoTime();
+            BatchValidationSummary summary = new BatchValidationSummary();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+            // Chaque paquet garde l'ordre d'entrée : couple à valider ou message d'erreur
+            List<Object> chunk = new ArrayList<>(VALIDATION_CHUNK_SIZE);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                chunk.add(parseValidationLine(line, lineNumber));
+                if (chunk.size() == VALIDATION_CHUNK_SIZE) {
+                    writeValidationChunk(out, chunk, summary);
+                    chunk.clear();
+                }
+            }
+            writeValidationChunk(out, chunk, summary);
+
+            long elapsedNanos = System.nanoTime() - start;
+            summary.setElapsedMs(elapsedNanos / 1_000_000);
+            summary.setPairsPerSecond(elapsedNanos == 0 ? 0 : summary.getTotal() * 1e9 / elapsedNanos);
+            writeNdjsonLine(out, summary);
+            out.flush();
+        };
+    }
+
+    private Object parseValidationLine(String line, long lineNumber) {
+        try {
+            MorphologyRequest pair = mapper.readValue(line, MorphologyRequest.class);
+            if (pair.getRoot() != null && pair.getWord() != null) return pair;
+            return validationError(lineNumber, "Champs root et word requis");
+        } catch (IOException e) {
+            return validationError(lineNumber, "Ligne JSON invalide");
+        }
+    }
+
+    private LinkedHashMap<String, Object> validationError(long lineNumber, String message) {
+        LinkedHashMap<String, Object> error = new LinkedHashMap<>();
+        error.put("line", lineNumber);
+        error.put("error", message);
+        return error;
+    }
+
+    private void writeValidationChunk(OutputStream out, List<Object> chunk,
+                                      BatchValidationSummary summary) throws IOException {
+        List<MorphologyRequest> pairs = new ArrayList<>(chunk.size());
+        for (Object item : chunk) {
+            if (item instanceof MorphologyRequest pair) pairs.add(pair);
+        }
+        List<ValidationResult> results = service.validateAll(pairs);
+
+        int next = 0;
+        for (Object item : chunk) {
+            if (item instanceof MorphologyRequest) {
+                ValidationResult result = results.get(next++);
+                if (result.isValid()) summary.setValid(summary.getValid() + 1);
+                else summary.setInvalid(summary.getInvalid() + 1);
+                writeNdjsonLine(out, result);
+            } else {
+                summary.setErrors(summary.getErrors() + 1);
+                writeNdjsonLine(out, item);
+            }
+            summary.setTotal(summary.getTotal() + 1);
+        }
+        out.flush();
+    }
+
     /**
      * Récupère l'ensemble des dérivés déjà validés et stockés pour une racine.
      *
@@ -100,13 +287,87 @@ public class MorphologyController {
     // ==========================================
 
     /**
-     * Récupère la liste exhaustive des racines chargées dans le système (AVL Tree).
+     * Récupère les racines chargées dans le système (AVL Tree) : la liste exhaustive, ou une
+     * seule page si offset ou limit est fourni (sans parcourir les racines qui la précèdent).
      *
+     * @param offset Position de la première racine (optionnel).
+     * @param limit  Nombre maximal de racines (optionnel, borné à 1000).
      * @return Liste de chaînes de caractères (racines).
      */
     @GetMapping("/roots")
-    public List<String> getRoots() {
-        return service.getRootsList();
+    public List<String> getRoots(@RequestParam(required = false) Integer offset,
+                                 @RequestParam(required = false) Integer limit) {
+        if (offset == null && limit == null) return service.getRootsList();
+        return service.getRootsPage(offset == null ? 0 : offset,
+                Math.min(limit == null ? MAX_PAGE_LIMIT : limit, MAX_PAGE_LIMIT));
+    }
+
+    /**
+     * @return Le nombre de racines chargées (pour la pagination).
+     */
+    @GetMapping("/roots/count")
+    public int getRootCount() {
+        return service.getRootCount();
+    }
+
+    /**
+     * Position d'une racine dans l'ordre alphabétique.
+     *
+     * @param root La racine cible.
+     * @return {root, rank, total}, ou une erreur 404 si la racine est absente.
+     */
+    @GetMapping("/roots/rank")
+    public ResponseEntity<Map<String, Object>> getRootRank(@RequestParam String root) {
+        int rank = service.getRootRank(root.trim());
+        return rank < 0 ? ResponseEntity.notFound().build() : ResponseEntity.ok(rootPosition(root.trim(), rank));
+    }
+
+    /**
+     * Racine située à une position donnée de l'ordre alphabétique.
+     *
+     * @param k La position (à partir de 0).
+     * @return {root, rank, total}, ou une erreur 404 si k est hors bornes.
+     */
+    @GetMapping("/roots/select")
+    public ResponseEntity<Map<String, Object>> selectRoot(@RequestParam int k) {
+        String root = service.selectRoot(k);
+        return root == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(rootPosition(root, k));
+    }
+
+    /**
+     * Racines comprises entre deux bornes incluses (ordre alphabétique).
+     *
+     * @param from  Borne inférieure (vide : pas de borne).
+     * @param to    Borne supérieure (vide : pas de borne).
+     * @param limit Nombre maximal de racines (borné à 1000).
+     * @return Les racines de l'intervalle, triées.
+     */
+    @GetMapping("/roots/range")
+    public List<String> getRootsRange(@RequestParam(defaultValue = "") String from,
+                                      @RequestParam(defaultValue = "") String to,
+                                      @RequestParam(defaultValue = "100") int limit) {
+        return service.getRootsRange(from, to, Math.min(limit, MAX_PAGE_LIMIT));
+    }
+
+    private Map<String, Object> rootPosition(String root, int rank) {
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("root", root);
+        position.put("rank", rank);
+        position.put("total", service.getRootCount());
+        return position;
+    }
+
+    /**
+     * Autocomplétion : premières racines commençant par un préfixe, sans transférer la liste complète.
+     *
+     * @param prefix Le préfixe saisi (vide : premières racines).
+     * @param limit  Le nombre maximal de résultats (borné à 500).
+     * @return Les racines correspondantes, triées.
+     */
+    @GetMapping("/roots/search")
+    public List<String> searchRoots(@RequestParam(defaultValue = "") String prefix,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return service.searchRoots(prefix, Math.min(limit, MAX_SEARCH_LIMIT));
     }
 
     /**
@@ -149,6 +410,30 @@ public class MorphologyController {
         return service.computeStatistics();
     }
 
+    /**
+     * Détail des dérivés validés par racine, page par page (ordre alphabétique).
+     *
+     * @param offset Position de la première racine.
+     * @param limit  Nombre maximal de racines (borné à 1000).
+     * @return Une entrée {text, derivatives} par racine.
+     */
+    @GetMapping("/statistics/roots")
+    public List<RootStat> getRootStatistics(@RequestParam(defaultValue = "0") int offset,
+                                            @RequestParam(defaultValue = "100") int limit) {
+        return service.getRootStatistics(offset, Math.min(limit, MAX_PAGE_LIMIT));
+    }
+
+    /**
+     * Mots dérivés et racines les plus utilisés, estimés en continu en mémoire bornée.
+     *
+     * @param limit Nombre maximal d'éléments par classement (borné à 1000).
+     * @return {capacity, words, roots}, chaque élément portant sa fréquence estimée et son erreur.
+     */
+    @GetMapping("/statistics/top")
+    public TopStatistics getTopStatistics(@RequestParam(defaultValue = "100") int limit) {
+        return service.getTopStatistics(Math.min(limit, MAX_PAGE_LIMIT));
+    }
+
 
 
 
@@ -0,0 +1,20 @@
+package com.morphology.arabic_morphology_app.IService;
+
+import com.morphology.arabic_morphology_app.model.CorpusReport;
+import com.morphology.arabic_morphology_app.model.CorpusRequest;
+
+/**
+ * Interface définissant l'analyse hors ligne de corpus textuels.
+ * Mesure la couverture des racines et des schèmes du moteur sur de grands fichiers locaux.
+ */
+public interface CorpusService {
+
+    /**
+     * Analyse un fichier corpus en flux : chaque mot arabe est recherché parmi les formes
+     * générées par toutes les racines et tous les schèmes, et les occurrences sont agrégées.
+     * @param request Le fichier à analyser et les options de normalisation.
+     * @return Le rapport de couverture.
+     * @throws IllegalArgumentException si le fichier est introuvable ou hors du répertoire autorisé.
+     */
+    CorpusReport analyze(CorpusRequest request);
+}
@@ -1,7 +1,12 @@
 package com.morphology.arabic_morphology_app.IService;
 
+import com.morphology.arabic_morphology_app.model.CacheStats;
+import com.morphology.arabic_morphology_app.model.MorphologyRequest;
+import com.morphology.arabic_morphology_app.model.RootStat;
 import com.morphology.arabic_morphology_app.model.StatisticsResponse;
+import com.morphology.arabic_morphology_app.model.TopStatistics;
 import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.UsageStats;
 import com.morphology.arabic_morphology_app.model.ValidationResult;
 
 import java.util.List;
@@ -57,6 +62,23 @@ public interface MorphologyService {
      */
     List<String> generateAll(String root);
 
+    /**
+     * Génère les dérivés d'une racine pour une sélection de schèmes (utilisé par la génération par lot).
+     * @param root La racine cible.
+     * @param schemes Les schèmes à appliquer (tous si null ou vide).
+     * @return Les dérivés indexés par nom de schème, dans l'ordre demandé.
+     * @throws RuntimeException si la racine ou un schème est inconnu.
+     */
+    Map<String, String> generateSchemes(String root, List<String> schemes);
+
+    /**
+     * Calcule les dérivés d'une racine pour tous les schèmes sans les enregistrer dans
+     * l'historique (utilisé par les traitements hors ligne comme l'analyse de corpus).
+     * @param root La racine cible.
+     * @return Les dérivés indexés par nom de schème (vide si la racine est inconnue).
+     */
+    Map<String, String> derivativesOf(String root);
+
     /**
      * Valide un mot par rapport à une racine en cherchant un schème correspondant.
      * @param root La racine d'origine.
@@ -65,6 +87,23 @@ public interface MorphologyService {
      */
     ValidationResult validate(String root, String word);
 
+    /**
+     * Valide un lot de couples (racine, mot) en parallèle sur les cœurs disponibles.
+     * Chaque couple est évalué exactement comme par {@link #validate(String, String)}.
+     * @param pairs Les couples à valider (racine et mot renseignés).
+     * @return Les résultats, dans l'ordre des couples fournis.
+     */
+    List<ValidationResult> validateAll(List<MorphologyRequest> pairs);
+
+    /**
+     * Analyse un mot sans connaître sa racine : aligne le mot sur les gabarits inverses
+     * de chaque schème (transformations défaites), puis confirme la racine extraite dans l'AVL.
+     * Coût proportionnel à la longueur du mot × nombre de schèmes.
+     * @param word Le mot à analyser.
+     * @return Un résultat par racine candidate, avec les schèmes qui produisent le mot.
+     */
+    List<ValidationResult> analyze(String word);
+
     // ==========================================
     //        GESTION DES DÉRIVÉS ET LISTES
     // ==========================================
@@ -82,6 +121,48 @@ public interface MorphologyService {
      */
     List<String> getRootsList();
 
+    /**
+     * Recherche les racines commençant par un préfixe (autocomplétion).
+     * @param prefix Le préfixe (vide : premières racines dans l'ordre alphabétique).
+     * @param limit Le nombre maximal de résultats.
+     * @return Au plus limit racines, triées.
+     */
+    List<String> searchRoots(String prefix, int limit);
+
+    /**
+     * @return Le nombre de racines chargées.
+     */
+    int getRootCount();
+
+    /**
+     * Retourne une page de racines (ordre alphabétique) sans construire la liste complète.
+     * @param offset La position de la première racine.
+     * @param limit Le nombre maximal de racines.
+     * @return Au plus limit racines.
+     */
+    List<String> getRootsPage(int offset, int limit);
+
+    /**
+     * @param root La racine cible.
+     * @return Sa position (à partir de 0) dans l'ordre alphabétique, ou -1 si elle est absente.
+     */
+    int getRootRank(String root);
+
+    /**
+     * @param k La position (à partir de 0) dans l'ordre alphabétique.
+     * @return La racine à cette position, ou null si k est hors bornes.
+     */
+    String selectRoot(int k);
+
+    /**
+     * Retourne les racines comprises entre deux bornes incluses.
+     * @param from La borne inférieure (vide : pas de borne).
+     * @param to La borne supérieure (vide : pas de borne).
+     * @param limit Le nombre maximal de racines.
+     * @return Au plus limit racines, triées.
+     */
+    List<String> getRootsRange(String from, String to, int limit);
+
     /**
      * Retourne la liste de tous les noms de schèmes enregistrés.
      * @return Liste de chaînes de caractères.
@@ -119,6 +200,18 @@ public interface MorphologyService {
      */
     boolean deleteTransformationGroup(String key);
 
+    /**
+     * Retourne les compteurs du cache de génération (succès, échecs, évictions).
+     * @return Les statistiques du cache.
+     */
+    CacheStats getCacheStats();
+
+    /**
+     * Retourne les compteurs de l'enregistrement différé des usages (déposés, abandonnés, appliqués).
+     * @return Les statistiques d'enregistrement des usages.
+     */
+    UsageStats getUsageStats();
+
     // ==========================================
     //      DEBUG ET STRUCTURES DE DONNÉES
     // ==========================================
@@ -135,8 +228,27 @@ public interface MorphologyService {
      */
     List<List<Map<String, String>>> getHashStructure();
 
+    /**
+     * Résumé des statistiques du lexique (totaux, densité, répartitions par type et par schème).
+     * @return Les statistiques, servies depuis des compteurs tenus à jour.
+     */
     StatisticsResponse computeStatistics();
 
+    /**
+     * Détail des dérivés validés, racine par racine, page par page (ordre alphabétique).
+     * @param offset La position de la première racine.
+     * @param limit Le nombre maximal de racines.
+     * @return Une entrée par racine de la page.
+     */
+    List<RootStat> getRootStatistics(int offset, int limit);
+
+    /**
+     * Mots dérivés et racines les plus utilisés (classement approché en mémoire bornée).
+     * @param limit Le nombre maximal d'éléments par classement.
+     * @return Les deux classements, par fréquence estimée décroissante.
+     */
+    TopStatistics getTopStatistics(int limit);
+
 
 
 
@@ -0,0 +1,323 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.IService.CorpusService;
+import com.morphology.arabic_morphology_app.IService.MorphologyService;
+import com.morphology.arabic_morphology_app.model.CorpusReport;
+import com.morphology.arabic_morphology_app.model.CorpusRequest;
+import com.morphology.arabic_morphology_app.model.RootStat;
+import com.morphology.arabic_morphology_app.model.StatisticsResponse;
+import com.morphology.arabic_morphology_app.storage.ReverseWordIndex;
+import com.morphology.arabic_morphology_app.util.ArabicText;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Implémentation de l'analyse de corpus.
+ * Le fichier est découpé en tranches d'octets traitées en parallèle (Fork/Join) ;
+ * chaque tranche est lue par petits tampons et n'est jamais chargée entièrement en mémoire.
+ * Les frontières de tranches sont alignées sur un octet ASCII, qui ne peut pas apparaître
+ * à l'intérieur d'un caractère arabe encodé en UTF-8, de sorte qu'aucun mot n'est coupé.
+ */
+@Service
+public class CorpusServiceImpl implements CorpusService {
+
+    /** Taille maximale d'une tranche traitée par une seule tâche. */
+    private static final long LEAF_BYTES = 8L << 20;
+
+    /** Taille du tampon de lecture d'une tranche. */
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final MorphologyService morphologyService;
+
+    // Répertoire dans lequel les corpus doivent se trouver
+    @Value("${morphology.corpus.base-dir:corpus}")
+    private String baseDir;
+
+    /**
+     * Injection de dépendance via constructeur.
+     *
+     * @param morphologyService Le service fournissant les formes générées.
+     */
+    public CorpusServiceImpl(MorphologyService morphologyService) {
+        this.morphologyService = morphologyService;
+    }
+
+    @Override
+    public CorpusReport analyze(CorpusRequest request) {
+        Path file = resolveCorpus(request.getPath());
+        long start = System.nanoTime();
+        Lexicon lexicon = buildLexicon(request.isStripDiacritics());
+
+        Counts counts;
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            counts = ForkJoinPool.commonPool().invoke(new ChunkTask(channel, lexicon, 0, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur lecture corpus: " + e.getMessage(), e);
+        }
+
+        CorpusReport report = buildReport(lexicon, counts);
+        report.setBytes(size);
+        report.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Résout le chemin demandé à l'intérieur du répertoire des corpus.
+     */
+    private Path resolveCorpus(String path) {
+        if (path == null || path.isBlank()) throw new IllegalArgumentException("Chemin du corpus requis");
+        Path base = Paths.get(baseDir).toAbsolutePath().normalize();
+        Path file = base.resolve(path).normalize();
+        if (!file.startsWith(base)) {
+            throw new IllegalArgumentException("Chemin hors du répertoire des corpus : " + path);
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Fichier corpus introuvable : " + path);
+        }
+        return file;
+    }
+
+    // ==========================================
+    //      INDEX DES FORMES (RACINE × SCHÈME)
+    // ==========================================
+
+    /**
+     * Formes générées par toutes les racines et tous les schèmes, indexées par forme normalisée.
+     */
+    private static final class Lexicon {
+        final List<String> roots;
+        final List<String> schemes;
+        final String[] forms;          // [racine * nbSchèmes + schème]
+        final ReverseWordIndex index = new ReverseWordIndex();
+        final boolean stripDiacritics;
+
+        Lexicon(List<String> roots, List<String> schemes, boolean stripDiacritics) {
+            this.roots = roots;
+            this.schemes = schemes;
+            this.forms = new String[roots.size() * schemes.size()];
+            this.stripDiacritics = stripDiacritics;
+        }
+
+        int pairSlot(long pair) {
+            return ReverseWordIndex.rootId(pair) * schemes.size() + ReverseWordIndex.schemeId(pair);
+        }
+    }
+
+    private Lexicon buildLexicon(boolean stripDiacritics) {
+        List<String> roots = morphologyService.getRootsList();
+        List<String> schemes = morphologyService.getSchemesList();
+        Map<String, Integer> schemeIndex = new HashMap<>();
+        for (int s = 0; s < schemes.size(); s++) schemeIndex.put(schemes.get(s), s);
+
+        Lexicon lexicon = new Lexicon(roots, schemes, stripDiacritics);
+        for (int r = 0; r < roots.size(); r++) {
+            for (Map.Entry<String, String> e : morphologyService.derivativesOf(roots.get(r)).entrySet()) {
+                Integer s = schemeIndex.get(e.getKey());
+                if (s == null) continue;
+                lexicon.forms[r * schemes.size() + s] = e.getValue();
+                String key = stripDiacritics ? ArabicText.stripDiacritics(e.getValue()) : e.getValue();
+                lexicon.index.add(key, r, s);
+            }
+        }
+        return lexicon;
+    }
+
+    // ==========================================
+    //        TRAITEMENT PARALLÈLE (FORK/JOIN)
+    // ==========================================
+
+    /**
+     * Compteurs agrégés d'une ou plusieurs tranches.
+     */
+    private static final class Counts {
+        long tokens;
+        long matched;
+        final long[] rootHits;
+        final long[] schemeHits;
+        final BitSet pairsSeen = new BitSet();
+
+        Counts(Lexicon lexicon) {
+            rootHits = new long[lexicon.roots.size()];
+            schemeHits = new long[lexicon.schemes.size()];
+        }
+
+        Counts merge(Counts other) {
+            tokens += other.tokens;
+            matched += other.matched;
+            for (int i = 0; i < rootHits.length; i++) rootHits[i] += other.rootHits[i];
+            for (int i = 0; i < schemeHits.length; i++) schemeHits[i] += other.schemeHits[i];
+            pairsSeen.or(other.pairsSeen);
+            return this;
+        }
+    }
+
+    /**
+     * Tâche Fork/Join couvrant la plage d'octets [start, end) du fichier.
+     */
+    @SuppressWarnings("serial") // Jamais sérialisée : exécutée dans le pool Fork/Join
+    private static final class ChunkTask extends RecursiveTask<Counts> {
+        private final FileChannel channel;
+        private final Lexicon lexicon;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, Lexicon lexicon, long start, long end) {
+            this.channel = channel;
+            this.lexicon = lexicon;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (end - start > LEAF_BYTES) {
+                long mid = start + (end - start) / 2;
+                ChunkTask left = new ChunkTask(channel, lexicon, start, mid);
+                ChunkTask right = new ChunkTask(channel, lexicon, mid, end);
+                left.fork();
+                Counts rightCounts = right.compute();
+                return left.join().merge(rightCounts);
+            }
+            try {
+                return scan(align(start), align(end));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Avance jusqu'au prochain octet ASCII (séparateur sûr entre deux mots arabes).
+         */
+        private long align(long pos) throws IOException {
+            long size = channel.size();
+            if (pos <= 0) return 0;
+            if (pos >= size) return size;
+            ByteBuffer buffer = ByteBuffer.allocate(256);
+            while (pos < size) {
+                buffer.clear();
+                int n = channel.read(buffer, pos);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if ((buffer.get(i) & 0x80) == 0) return pos + i;
+                }
+                pos += n;
+            }
+            return size;
+        }
+
+        /**
+         * Lit la plage par tampons, découpe les mots arabes et cumule les occurrences.
+         */
+        private Counts scan(long from, long to) throws IOException {
+            Counts counts = new Counts(lexicon);
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            CharBuffer chars = CharBuffer.allocate(READ_BUFFER_BYTES);
+            StringBuilder token = new StringBuilder(32);
+
+            long pos = from;
+            while (pos < to) {
+                bytes.limit((int) Math.min(bytes.capacity(), bytes.position() + (to - pos)));
+                int n = channel.read(bytes, pos);
+                if (n <= 0) break;
+                pos += n;
+                bytes.flip();
+                decoder.decode(bytes, chars, pos >= to);
+                bytes.compact();
+                chars.flip();
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (ArabicText.isWordChar(c)) {
+                        if (!lexicon.stripDiacritics || !ArabicText.isIgnorable(c)) token.append(c);
+                    } else if (token.length() > 0) {
+                        count(counts, token);
+                    }
+                }
+                chars.clear();
+            }
+            if (token.length() > 0) count(counts, token);
+            return counts;
+        }
+
+        private void count(Counts counts, StringBuilder token) {
+            counts.tokens++;
+            long[] pairs = lexicon.index.lookup(token.toString());
+            token.setLength(0);
+            if (pairs.length == 0) return;
+            counts.matched++;
+            for (long pair : pairs) {
+                counts.rootHits[ReverseWordIndex.rootId(pair)]++;
+                counts.schemeHits[ReverseWordIndex.schemeId(pair)]++;
+                counts.pairsSeen.set(lexicon.pairSlot(pair));
+            }
+        }
+    }
+
+    // ==========================================
+    //            CONSTRUCTION DU RAPPORT
+    // ==========================================
+
+    private CorpusReport buildReport(Lexicon lexicon, Counts counts) {
+        int schemeCount = lexicon.schemes.size();
+        Map<String, RootStat> roots = new LinkedHashMap<>();
+        Map<String, Long> rootHits = new LinkedHashMap<>();
+        int totalDerivatives = 0;
+
+        for (int r = 0; r < lexicon.roots.size(); r++) {
+            if (counts.rootHits[r] == 0) continue;
+            String root = lexicon.roots.get(r);
+            List<String> derivatives = new ArrayList<>();
+            for (int s = 0; s < schemeCount; s++) {
+                if (counts.pairsSeen.get(r * schemeCount + s)) derivatives.add(lexicon.forms[r * schemeCount + s]);
+            }
+            totalDerivatives += derivatives.size();
+            roots.put(root, new RootStat(root, derivatives));
+            rootHits.put(root, counts.rootHits[r]);
+        }
+
+        Map<String, Long> schemeHits = new LinkedHashMap<>();
+        int schemesSeen = 0;
+        for (int s = 0; s < schemeCount; s++) {
+            schemeHits.put(lexicon.schemes.get(s), counts.schemeHits[s]);
+            if (counts.schemeHits[s] > 0) schemesSeen++;
+        }
+
+        StatisticsResponse stats = new StatisticsResponse();
+        stats.setRoots(roots);
+        stats.setTotalRoots(roots.size());
+        stats.setTotalPatterns(schemesSeen);
+        stats.setTotalDerivatives(totalDerivatives);
+        stats.setDensity(roots.isEmpty() ? 0 : (double) totalDerivatives / roots.size());
+
+        CorpusReport report = new CorpusReport();
+        report.setStatistics(stats);
+        report.setRootHits(rootHits);
+        report.setSchemeHits(schemeHits);
+        report.setTotalTokens(counts.tokens);
+        report.setMatchedTokens(counts.matched);
+        report.setTokenCoverage(counts.tokens == 0 ? 0 : (double) counts.matched / counts.tokens);
+        report.setRootCoverage(lexicon.roots.isEmpty() ? 0 : (double) roots.size() / lexicon.roots.size());
+        report.setSchemeCoverage(schemeCount == 0 ? 0 : (double) schemesSeen / schemeCount);
+        return report;
+    }
+}
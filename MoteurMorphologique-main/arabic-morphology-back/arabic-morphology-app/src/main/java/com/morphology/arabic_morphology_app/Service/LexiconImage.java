@@ -0,0 +1,241 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Image binaire du lexique (racines triées et dédoublonnées, schèmes, groupes de transformations),
+ * projetée en mémoire au démarrage à la place de l'analyse des fichiers texte.
+ * L'image ne contient que le lexique analysé : les gabarits de schèmes et les pipelines de
+ * transformations sont toujours compilés au chargement (ils sont peu nombreux ; le gain porte
+ * sur la lecture, le tri et le dédoublonnage des racines).
+ * L'image porte l'empreinte (tailles et dates) des fichiers texte dont elle est issue : si elle ne
+ * correspond plus (fichiers modifiés), ou si l'image est corrompue, elle est ignorée.
+ *
+ * Organisation du fichier (petit-boutiste) :
+ * <pre>
+ *   en-tête   : magic, version, empreinte des sources (long), CRC du corps (long),
+ *               nb chaînes, nb racines, nb schèmes, nb groupes, nb règles, réserve (48 octets)
+ *   chaînes   : nb chaînes × (position, longueur) dans le réservoir
+ *   racines   : nb racines × indice de chaîne
+ *   schèmes   : nb schèmes × (nom, règle)
+ *   groupes   : nb groupes × (clé, commentaire, première règle, nb règles)
+ *   règles    : nb règles × (type, de, vers, ordre)
+ *   réservoir : chaînes UTF-8 dédupliquées
+ * </pre>
+ * Une chaîne absente (null) est codée -1.
+ */
+final class LexiconImage {
+
+    private static final int MAGIC = 0x4D4C5849; // "MLXI"
+    private static final int VERSION = 4; // 4 : racines invalides écartées avant l'écriture de l'image
+    private static final int HEADER_BYTES = 48;
+
+    /** Contenu du lexique : racines triées, schèmes et groupes dans leur ordre de déclaration. */
+    static final class Contents {
+        final List<String> roots;                // triées, sans doublon
+        final List<String[]> schemes;            // couples [nom, règle]
+        final List<TransformationGroup> groups;
+
+        Contents(List<String> roots, List<String[]> schemes, List<TransformationGroup> groups) {
+            this.roots = roots;
+            this.schemes = schemes;
+            this.groups = groups;
+        }
+    }
+
+    private LexiconImage() {
+    }
+
+    // ==========================================
+    //              COMPILATION
+    // ==========================================
+
+    /**
+     * Écrit le lexique dans une image (fichier temporaire puis renommage atomique).
+     *
+     * @param file        Le chemin de l'image.
+     * @param sourceStamp L'empreinte des fichiers texte analysés.
+     * @param contents    Le contenu du lexique.
+     */
+    static void write(Path file, long sourceStamp, Contents contents) {
+        StringPool pool = new StringPool();
+        int ruleCount = 0;
+        for (TransformationGroup group : contents.groups) ruleCount += group.getRules().size();
+
+        ByteBuffer tables = ByteBuffer.allocate(4 * (contents.roots.size() + 2 * contents.schemes.size()
+                + 4 * contents.groups.size() + 4 * ruleCount)).order(ByteOrder.LITTLE_ENDIAN);
+        for (String root : contents.roots) tables.putInt(pool.index(root));
+        for (String[] scheme : contents.schemes) {
+            tables.putInt(pool.index(scheme[0]));
+            tables.putInt(pool.index(scheme[1]));
+        }
+        int firstRule = 0;
+        for (TransformationGroup group : contents.groups) {
+            tables.putInt(pool.index(group.getKey()));
+            tables.putInt(pool.index(group.getComment()));
+            tables.putInt(firstRule);
+            tables.putInt(group.getRules().size());
+            firstRule += group.getRules().size();
+        }
+        for (TransformationGroup group : contents.groups) {
+            for (TransformationRule rule : group.getRules()) {
+                tables.putInt(pool.index(rule.getType()));
+                tables.putInt(pool.index(rule.getFrom()));
+                tables.putInt(pool.index(rule.getTo()));
+                tables.putInt(rule.getOrder());
+            }
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(8 * pool.strings.size() + tables.capacity() + pool.bytes)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        int offset = 0;
+        for (byte[] bytes : pool.strings) {
+            body.putInt(offset);
+            body.putInt(bytes.length);
+            offset += bytes.length;
+        }
+        body.put(tables.array());
+        for (byte[] bytes : pool.strings) body.put(bytes);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sourceStamp).putLong(crc(body.array()))
+                .putInt(pool.strings.size()).putInt(contents.roots.size()).putInt(contents.schemes.size())
+                .putInt(contents.groups.size()).putInt(ruleCount);
+        header.rewind(); // en-tête complet, octets de réserve compris
+        body.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (header.hasRemaining()) ch.write(header);
+                while (body.hasRemaining()) ch.write(body);
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur écriture image " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Réservoir de chaînes : chaque chaîne distincte n'est stockée qu'une fois.
+     */
+    private static final class StringPool {
+        final List<byte[]> strings = new ArrayList<>();
+        final Map<String, Integer> indexes = new HashMap<>();
+        int bytes;
+
+        int index(String s) {
+            if (s == null) return -1;
+            return indexes.computeIfAbsent(s, k -> {
+                byte[] encoded = k.getBytes(StandardCharsets.UTF_8);
+                strings.add(encoded);
+                bytes += encoded.length;
+                return strings.size() - 1;
+            });
+        }
+    }
+
+    // ==========================================
+    //              CHARGEMENT
+    // ==========================================
+
+    /**
+     * Projette l'image en mémoire et en relit le contenu.
+     *
+     * @param file        Le chemin de l'image.
+     * @param sourceStamp L'empreinte attendue des fichiers texte.
+     * @return Le contenu, ou null si l'image est absente, périmée ou corrompue.
+     */
+    static Contents read(Path file, long sourceStamp) {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) return invalid(file, "tronquée");
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) return invalid(file, "format inconnu");
+            if (map.getLong(8) != sourceStamp) return invalid(file, "périmée");
+
+            ByteBuffer body = map.slice(HEADER_BYTES, (int) ch.size() - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != map.getLong(16)) return invalid(file, "corrompue");
+            return decode(body, map.getInt(24), map.getInt(28), map.getInt(32), map.getInt(36), map.getInt(40));
+        } catch (IOException | RuntimeException e) {
+            return invalid(file, e.getMessage());
+        }
+    }
+
+    private static Contents decode(ByteBuffer body, int stringCount, int rootCount, int schemeCount,
+                                   int groupCount, int ruleCount) {
+        int poolStart = 8 * stringCount + 4 * (rootCount + 2 * schemeCount + 4 * groupCount + 4 * ruleCount);
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            byte[] bytes = new byte[body.getInt(8 * i + 4)];
+            body.get(poolStart + body.getInt(8 * i), bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int pos = 8 * stringCount;
+        List<String> roots = new ArrayList<>(rootCount);
+        for (int i = 0; i < rootCount; i++, pos += 4) roots.add(strings[body.getInt(pos)]);
+
+        List<String[]> schemes = new ArrayList<>(schemeCount);
+        for (int i = 0; i < schemeCount; i++, pos += 8) {
+            schemes.add(new String[]{strings[body.getInt(pos)], strings[body.getInt(pos + 4)]});
+        }
+
+        int rulesStart = pos + 16 * groupCount;
+        List<TransformationGroup> groups = new ArrayList<>(groupCount);
+        for (int i = 0; i < groupCount; i++, pos += 16) {
+            TransformationGroup group = new TransformationGroup();
+            group.setKey(string(strings, body.getInt(pos)));
+            group.setComment(string(strings, body.getInt(pos + 4)));
+            int first = body.getInt(pos + 8);
+            int count = body.getInt(pos + 12);
+            for (int r = first; r < first + count; r++) {
+                int at = rulesStart + 16 * r;
+                group.getRules().add(new TransformationRule(string(strings, body.getInt(at)),
+                        string(strings, body.getInt(at + 4)), string(strings, body.getInt(at + 8)),
+                        body.getInt(at + 12)));
+            }
+            groups.add(group);
+        }
+        return new Contents(roots, schemes, groups);
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    private static Contents invalid(Path file, String reason) {
+        System.err.println("Image du lexique ignorée (" + reason + ") : " + file);
+        return null;
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
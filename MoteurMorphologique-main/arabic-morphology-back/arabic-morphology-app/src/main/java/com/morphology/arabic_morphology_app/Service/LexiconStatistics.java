@@ -0,0 +1,105 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs des statistiques du lexique, tenus à jour au fil des événements
+ * (racines chargées, premier enregistrement d'un dérivé, usages, schèmes et dérivés retirés)
+ * au lieu d'être recalculés par un parcours de toutes les racines à chaque consultation.
+ *
+ * Un dérivé est compté une fois par racine, au moment de sa première validation, et attribué
+ * au schème qui l'a produit à ce moment. Les compteurs sont répartis (LongAdder) : aucun verrou
+ * sur le chemin des requêtes.
+ */
+final class LexiconStatistics {
+
+    private final LongAdder[] rootsByType = adders();
+    private final LongAdder[] derivativesByType = adders();
+    private final LongAdder derivatives = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> derivativesByScheme = new ConcurrentHashMap<>();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[RootType.values().length];
+        for (int i = 0; i < adders.length; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+
+    // ==========================================
+    //            ÉVÉNEMENTS
+    // ==========================================
+
+    /** Une racine a été ajoutée au lexique. */
+    void rootAdded(RootType type) {
+        rootsByType[type.ordinal()].increment();
+    }
+
+    /** Un mot a été validé pour la première fois pour sa racine. */
+    void derivativeAdded(RootType type, String scheme) {
+        derivatives.increment();
+        derivativesByType[type.ordinal()].increment();
+        derivativesByScheme.computeIfAbsent(scheme, s -> new LongAdder()).increment();
+    }
+
+    /** Des usages (générations ou validations) ont été enregistrés. */
+    void usageRecorded(long count) {
+        validations.add(count);
+    }
+
+    /**
+     * Des dérivés d'une racine ont été retirés (schème supprimé) : ils sortent des totaux.
+     */
+    void derivativesRemoved(RootType type, long count) {
+        derivatives.add(-count);
+        derivativesByType[type.ordinal()].add(-count);
+    }
+
+    /**
+     * Un schème a été supprimé : son compteur disparaît (ses dérivés ont été retirés
+     * des racines et des totaux par derivativesRemoved).
+     */
+    void schemeRemoved(String scheme) {
+        derivativesByScheme.remove(scheme);
+    }
+
+    // ==========================================
+    //            LECTURE
+    // ==========================================
+
+    long getDerivatives() {
+        return derivatives.sum();
+    }
+
+    long getValidations() {
+        return validations.sum();
+    }
+
+    Map<String, Long> getRootsByType() {
+        return byType(rootsByType);
+    }
+
+    Map<String, Long> getDerivativesByType() {
+        return byType(derivativesByType);
+    }
+
+    /**
+     * @return Les dérivés par schème, triés par nom de schème.
+     */
+    Map<String, Long> getDerivativesByScheme() {
+        Map<String, Long> result = new TreeMap<>();
+        derivativesByScheme.forEach((scheme, count) -> result.put(scheme, count.sum()));
+        return result;
+    }
+
+    private static Map<String, Long> byType(LongAdder[] adders) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (RootType type : RootType.values()) result.put(type.name(), adders[type.ordinal()].sum());
+        return result;
+    }
+}
@@ -0,0 +1,266 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+import com.morphology.arabic_morphology_app.storage.ChangeJournal;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Persistance du lexique (racines, schèmes, groupes de transformations) dans un répertoire de données.
+ * Les fichiers texte du répertoire, s'ils existent, remplacent ceux du classpath. Chaque modification
+ * est d'abord ajoutée au journal (changes.journal) ; la compaction réécrit ensuite les fichiers texte
+ * à partir de l'état en mémoire (fichier temporaire puis renommage atomique) et vide le journal.
+ * Une image binaire (lexicon.img) évite d'analyser, trier et dédoublonner les fichiers texte au
+ * démarrage tant que leur taille et leur date de modification n'ont pas changé.
+ * Sans répertoire de données, les ressources du classpath sont lues et les modifications restent en
+ * mémoire : chacune est alors signalée comme non persistée.
+ */
+final class LexiconStore implements AutoCloseable {
+
+    static final String ROOTS_FILE = "racines.txt";
+    static final String SCHEMES_FILE = "schemes.txt";
+    static final String TRANSFORMATIONS_FILE = "transformations.txt";
+    private static final String JOURNAL_FILE = "changes.journal";
+    private static final String IMAGE_FILE = "lexicon.img";
+
+    private final Path dataDir;
+    private final ChangeJournal journal;
+
+    /**
+     * @param dataDir Le répertoire de données, ou null pour travailler sans persistance.
+     */
+    LexiconStore(Path dataDir) {
+        this.dataDir = dataDir;
+        this.journal = dataDir == null ? null : ChangeJournal.open(dataDir.resolve(JOURNAL_FILE));
+    }
+
+    // ==========================================
+    //              LECTURE
+    // ==========================================
+
+    /**
+     * Ouvre un fichier du lexique : celui du répertoire de données s'il existe, sinon la ressource du classpath.
+     *
+     * @param fileName Le nom du fichier (ex: schemes.txt).
+     * @return Le flux, ou null si le fichier est introuvable.
+     */
+    InputStream open(String fileName) {
+        if (dataDir != null) {
+            Path file = dataDir.resolve(fileName);
+            if (Files.isRegularFile(file)) {
+                try {
+                    return Files.newInputStream(file);
+                } catch (IOException e) {
+                    System.err.println("Erreur lecture " + file + ": " + e.getMessage());
+                }
+            }
+        }
+        return getClass().getClassLoader().getResourceAsStream(fileName);
+    }
+
+    /**
+     * Empreinte des fichiers texte du lexique, tels que open() les fournit : provenance, taille et
+     * date de modification de chacun, sans en lire le contenu. Elle identifie la version des sources
+     * à partir de laquelle une image binaire a été écrite.
+     *
+     * @return L'empreinte, ou 0 sans répertoire de données (pas d'image).
+     */
+    long sourceStamp() {
+        if (dataDir == null) return 0;
+        CRC32 crc = new CRC32();
+        for (String fileName : new String[]{ROOTS_FILE, SCHEMES_FILE, TRANSFORMATIONS_FILE}) {
+            crc.update(fileName.getBytes(StandardCharsets.UTF_8));
+            long size = -1, modified = -1;
+            try {
+                Path file = dataDir.resolve(fileName);
+                if (Files.isRegularFile(file)) {
+                    crc.update('D');
+                    size = Files.size(file);
+                    modified = Files.getLastModifiedTime(file).toMillis();
+                } else {
+                    URL resource = getClass().getClassLoader().getResource(fileName);
+                    if (resource != null) {
+                        crc.update('C');
+                        URLConnection connection = resource.openConnection();
+                        size = connection.getContentLengthLong();
+                        modified = connection.getLastModified();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur lecture " + fileName + ": " + e.getMessage());
+            }
+            crc.update(ByteBuffer.allocate(16).putLong(size).putLong(modified).array());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * @return Le contenu de l'image binaire, ou null si elle est absente ou ne correspond pas aux sources.
+     */
+    LexiconImage.Contents loadImage(long sourceStamp) {
+        return dataDir == null ? null : LexiconImage.read(dataDir.resolve(IMAGE_FILE), sourceStamp);
+    }
+
+    /**
+     * Écrit l'image binaire du lexique (un échec n'empêche pas le démarrage).
+     */
+    void saveImage(long sourceStamp, LexiconImage.Contents contents) {
+        if (dataDir == null) return;
+        try {
+            LexiconImage.write(dataDir.resolve(IMAGE_FILE), sourceStamp, contents);
+            System.out.println("✅ Image binaire du lexique écrite.");
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * @return Les modifications journalisées depuis la dernière compaction, à rejouer au démarrage.
+     */
+    List<ChangeJournal.Entry> pendingChanges() {
+        return journal == null ? Collections.emptyList() : journal.replay();
+    }
+
+    // ==========================================
+    //          JOURNALISATION DES MODIFICATIONS
+    // ==========================================
+
+    void schemePut(String scheme, String rule) {
+        append(ChangeJournal.Op.SCHEME_PUT, scheme, rule);
+    }
+
+    void schemeDelete(String scheme) {
+        append(ChangeJournal.Op.SCHEME_DELETE, scheme);
+    }
+
+    void groupPut(TransformationGroup group) {
+        append(ChangeJournal.Op.GROUP_PUT, group.getKey(), formatRules(group.getRules()), group.getComment());
+    }
+
+    void groupDelete(String key) {
+        append(ChangeJournal.Op.GROUP_DELETE, key);
+    }
+
+    private void append(ChangeJournal.Op op, String... fields) {
+        if (journal == null) {
+            System.err.println("Modification non persistée (morphology.data-dir vide), perdue au redémarrage : "
+                    + op + " " + fields[0]);
+            return;
+        }
+        journal.append(op, fields);
+    }
+
+    /**
+     * @return Le nombre de modifications en attente de compaction.
+     */
+    int pendingCount() {
+        return journal == null ? 0 : journal.size();
+    }
+
+    // ==========================================
+    //              COMPACTION
+    // ==========================================
+
+    /**
+     * Réécrit les fichiers texte à partir d'un instantané des règles, puis vide le journal.
+     * L'appelant doit empêcher toute modification pendant l'opération.
+     *
+     * @param rules L'instantané courant.
+     */
+    void compact(RuleSet rules) {
+        if (dataDir == null) return;
+        writeAtomically(dataDir.resolve(SCHEMES_FILE), writer -> {
+            writer.write("# schemes.txt - généré le " + new java.util.Date());
+            writer.newLine();
+            writer.newLine();
+            for (int id : rules.schemeOrder) {
+                writer.write(rules.schemeNames[id] + "=" + rules.schemeRules[id]);
+                writer.newLine();
+            }
+        });
+        writeAtomically(dataDir.resolve(TRANSFORMATIONS_FILE), writer -> {
+            for (TransformationGroup group : rules.groups) {
+                if (group.getComment() != null) {
+                    for (String line : group.getComment().split("\n")) {
+                        writer.write("# " + line.trim());
+                        writer.newLine();
+                    }
+                }
+                writer.write(group.getKey() + ":" + formatRules(group.getRules()));
+                writer.newLine();
+            }
+        });
+        // Les renommages doivent être durables avant de vider le journal : sans cela, une panne
+        // pourrait laisser les anciens fichiers texte avec un journal déjà vide
+        syncDirectory(dataDir);
+        // Les fichiers sont complets : les modifications journalisées y figurent désormais
+        journal.truncate();
+        System.out.println("✅ Lexique compacté (" + rules.schemeOrder.length + " schèmes, "
+                + rules.groups.size() + " groupes).");
+    }
+
+    private interface Content {
+        void write(BufferedWriter writer) throws IOException;
+    }
+
+    /**
+     * Écrit dans un fichier temporaire forcé sur disque, puis le substitue atomiquement à la cible.
+     */
+    private static void writeAtomically(Path target, Content content) {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp.toFile());
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+                content.write(writer);
+                writer.flush();
+                out.getFD().sync();
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Échec compaction de " + target + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Force sur disque les entrées d'un répertoire (renommages atomiques qui y ont eu lieu).
+     * Certains systèmes (Windows) n'autorisent pas l'ouverture d'un répertoire : l'échec est alors ignoré.
+     */
+    static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            System.err.println("Synchronisation du répertoire " + dir + " impossible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sérialise les règles d'un groupe au format de transformations.txt (replace=a>b;replace_final=c).
+     */
+    static String formatRules(List<TransformationRule> rules) {
+        StringBuilder sb = new StringBuilder();
+        for (TransformationRule rule : rules) {
+            if (sb.length() > 0) sb.append(';');
+            if ("replace_final".equals(rule.getType())) sb.append("replace_final=").append(rule.getTo());
+            else sb.append("replace=").append(rule.getFrom()).append('>').append(rule.getTo());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        if (journal != null) journal.close();
+    }
+}
@@ -3,15 +3,37 @@ package com.morphology.arabic_morphology_app.Service;
 import com.morphology.arabic_morphology_app.IService.MorphologyService;
 import com.morphology.arabic_morphology_app.model.*;
 import com.morphology.arabic_morphology_app.storage.AVLTree;
+import com.morphology.arabic_morphology_app.storage.ChangeJournal;
+import com.morphology.arabic_morphology_app.storage.ConcurrentManualHashTable;
+import com.morphology.arabic_morphology_app.storage.DerivativeCache;
+import com.morphology.arabic_morphology_app.storage.DerivativeMatrix;
+import com.morphology.arabic_morphology_app.storage.FrequencyStore;
+import com.morphology.arabic_morphology_app.storage.HeavyHitters;
 import com.morphology.arabic_morphology_app.storage.ManualHashTable;
+import com.morphology.arabic_morphology_app.storage.PackedRootTable;
+import com.morphology.arabic_morphology_app.storage.PersistentAVLTree;
+import com.morphology.arabic_morphology_app.storage.ReverseWordIndex;
+import com.morphology.arabic_morphology_app.storage.RootStore;
+import com.morphology.arabic_morphology_app.storage.RootTrie;
+import com.morphology.arabic_morphology_app.util.DerivationPipeline;
 import com.morphology.arabic_morphology_app.util.RootAnalyzer;
+import com.morphology.arabic_morphology_app.util.SchemeTemplate;
+import com.morphology.arabic_morphology_app.util.TransformationKey;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implémentation principale du service de morphologie arabe.
@@ -22,14 +44,71 @@ import java.util.stream.Collectors;
 public class MorphologyServiceImpl implements MorphologyService {
 
     // Structures de stockage internes
-    private final AVLTree rootAVL = new AVLTree();
-    private final ManualHashTable patternTable = new ManualHashTable();
-
-    // Cache des transformations (clé: type_schème, valeur: liste d'opérations)
-    private Map<String, List<Map<String, String>>> transformations = new HashMap<>();
-
-    // Liste structurée des groupes de transformations pour l'administration
-    private List<TransformationGroup> transformationGroups = new ArrayList<>();
+    private RootStore rootStore = new AVLTree();
+    private final ConcurrentManualHashTable patternTable = new ConcurrentManualHashTable(); // Lectures sans verrou
+    private final RootTrie rootTrie = new RootTrie(); // Recherche par préfixe (autocomplétion)
+
+    // Règles en vigueur (schèmes, gabarits, groupes et pipelines) : instantané immuable publié
+    // atomiquement. Chaque lecture prend la référence une seule fois et travaille sans verrou ;
+    // les écritures, sérialisées par writeLock, construisent l'instantané suivant à part.
+    private final AtomicReference<RuleSet> ruleSet = new AtomicReference<>(RuleSet.EMPTY);
+    private final Object writeLock = new Object();
+
+    // Stockage des racines : arbre AVL, arbre AVL persistant (versions publiées atomiquement,
+    // lectures sans verrou), ou table compacte (codes int, adressage ouvert)
+    @Value("${morphology.roots.store:AVL}")
+    private RootStore.Kind rootStoreKind;
+
+    // Mode matérialisé : tous les dérivés (racine × schème) sont précalculés,
+    // avec l'index inverse (forme -> couples racine/schème) utilisé par validate.
+    // L'index n'est alimenté que par la matrice : sans elle, validate recalcule les dérivés
+    @Value("${morphology.materialize:false}")
+    private boolean materialize;
+    private final DerivativeMatrix derivativeMatrix = new DerivativeMatrix();
+    private final ReverseWordIndex reverseIndex = new ReverseWordIndex();
+
+    // Cache LRU des dérivés (racine, schème), utilisé lorsque la matrice n'est pas matérialisée
+    @Value("${morphology.cache.max-size:10000}")
+    private int cacheMaxSize;
+    private DerivativeCache derivativeCache = new DerivativeCache(0);
+
+    // Enregistrement différé des usages : agrégés en arrière-plan plutôt que dans la requête
+    @Value("${morphology.usage.write-behind:false}")
+    private boolean writeBehind;
+    @Value("${morphology.usage.flush-interval-ms:200}")
+    private long usageFlushIntervalMs;
+    @Value("${morphology.usage.buffer-capacity:4096}")
+    private int usageBufferCapacity;
+    @Value("${morphology.usage.overflow-policy:BLOCK}")
+    private UsageRecorder.OverflowPolicy usageOverflowPolicy;
+    private UsageRecorder usageRecorder;
+
+    // Fréquences persistées dans un fichier projeté en mémoire (vide : non persistées)
+    @Value("${morphology.frequency.file:}")
+    private String frequencyFile;
+    @Value("${morphology.frequency.checkpoint-interval-ms:5000}")
+    private long frequencyCheckpointMs;
+    private FrequencyStore frequencyStore;
+    private ScheduledExecutorService checkpointer;
+
+    // Répertoire de données du lexique (data par défaut ; vide : ressources du classpath seules,
+    // modifications non persistées et signalées comme telles).
+    // Les modifications sont journalisées puis compactées périodiquement dans les fichiers texte.
+    @Value("${morphology.data-dir:data}")
+    private String dataDir;
+    @Value("${morphology.journal.compaction-interval-ms:60000}")
+    private long compactionIntervalMs;
+    private LexiconStore lexicon = new LexiconStore(null);
+
+    // Statistiques tenues à jour au fil des événements (servies sans parcours des racines)
+    private final LexiconStatistics statistics = new LexiconStatistics();
+
+    // Mots et racines les plus utilisés (Space-Saving : nombre de compteurs borné, 0 : désactivé)
+    @Value("${morphology.statistics.top-capacity:1000}")
+    private int topCapacity;
+    private HeavyHitters topWords = new HeavyHitters(0, 1);
+    private HeavyHitters topRoots = new HeavyHitters(0, 1);
+    private ScheduledExecutorService compactor;
 
     // ==========================================
     //       INITIALISATION ET CYCLE DE VIE
@@ -41,73 +120,254 @@ public class MorphologyServiceImpl implements MorphologyService {
      */
     @PostConstruct
     public void init() {
-        loadRoots("racines.txt");
-        loadSchemes("schemes.txt");
-        loadAndParseTransformations();
+        synchronized (writeLock) {
+            derivativeCache = new DerivativeCache(materialize ? 0 : cacheMaxSize);
+            int segments = Runtime.getRuntime().availableProcessors();
+            topWords = new HeavyHitters(topCapacity, segments);
+            topRoots = new HeavyHitters(topCapacity, segments);
+            if (writeBehind) {
+                usageRecorder = new UsageRecorder(Runtime.getRuntime().availableProcessors(),
+                        usageBufferCapacity, usageOverflowPolicy, usageFlushIntervalMs, this::applyUsage);
+            }
+            if (dataDir != null && !dataDir.isBlank()) lexicon = new LexiconStore(Paths.get(dataDir));
+            if (rootStoreKind == RootStore.Kind.PACKED) rootStore = new PackedRootTable();
+            if (rootStoreKind == RootStore.Kind.PERSISTENT) rootStore = new PersistentAVLTree();
+            loadLexicon();
+            replayJournal();
+            if (materialize) materializeAll(ruleSet.get());
+            if (frequencyFile != null && !frequencyFile.isBlank()) openFrequencyStore();
+            if (dataDir != null && !dataDir.isBlank()) scheduleCompaction();
+        }
+    }
+
+    /**
+     * Applique les derniers usages en attente et arrête l'agrégateur à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (usageRecorder != null) usageRecorder.shutdown();
+        if (checkpointer != null) checkpointer.shutdown();
+        if (frequencyStore != null) frequencyStore.close();
+        if (compactor != null) compactor.shutdown();
+        synchronized (writeLock) {
+            compactLexicon();
+            lexicon.close();
+        }
+    }
+
+    /**
+     * Rejoue les modifications journalisées depuis la dernière compaction,
+     * puis les intègre aux fichiers texte.
+     */
+    private void replayJournal() {
+        List<ChangeJournal.Entry> changes = lexicon.pendingChanges();
+        if (changes.isEmpty()) return;
+
+        RuleSet rules = ruleSet.get();
+        for (ChangeJournal.Entry change : changes) {
+            String[] f = change.fields;
+            switch (change.op) {
+                case SCHEME_PUT -> patternTable.put(f[0], f[1]);
+                case SCHEME_DELETE -> patternTable.remove(f[0]);
+                case GROUP_PUT -> {
+                    TransformationGroup group = new TransformationGroup();
+                    group.setKey(f[0]);
+                    parseRules(group, f[1]);
+                    if (!f[2].isEmpty()) group.setComment(f[2]);
+                    rules = rules.withGroup(group);
+                }
+                case GROUP_DELETE -> rules = rules.withoutGroup(f[0]);
+            }
+        }
+        ruleSet.set(rules.withSchemes(patternTable.entries()));
+        System.out.println("✅ Journal rejoué (" + changes.size() + " modifications).");
+        compactLexicon();
+    }
+
+    /**
+     * Planifie la compaction périodique du journal dans les fichiers texte.
+     */
+    private void scheduleCompaction() {
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lexicon-compaction");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, compactionIntervalMs);
+        compactor.scheduleWithFixedDelay(() -> {
+            synchronized (writeLock) {
+                compactLexicon();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Compacte le journal s'il contient des modifications (appelant sous writeLock).
+     */
+    private void compactLexicon() {
+        if (lexicon.pendingCount() == 0) return;
+        try {
+            lexicon.compact(ruleSet.get());
+        } catch (RuntimeException e) {
+            // Le journal est conservé : il sera rejoué au prochain démarrage
+            System.err.println("Erreur compaction du lexique: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ouvre le fichier des fréquences, recharge les compteurs dans l'arbre AVL
+     * et planifie les points de reprise périodiques.
+     */
+    private void openFrequencyStore() {
+        long start = System.nanoTime();
+        frequencyStore = FrequencyStore.open(Paths.get(frequencyFile));
+
+        RuleSet rules = ruleSet.get();
+        long[] restored = new long[1];
+        frequencyStore.forEach((root, scheme, word, count) -> {
+            AVLTree.Node node = rootStore.find(root);
+            if (node == null || !rules.schemeIds.containsKey(scheme)) return; // Racine ou schème retiré depuis
+            // Le mot enregistré est rechargé tel quel, même si la règle du schème a changé depuis
+            recordUsage(node, scheme, word, count);
+            restored[0]++;
+        });
+        System.out.println("✅ Fréquences rechargées (" + restored[0] + " compteurs, "
+                + (System.nanoTime() - start) / 1_000_000 + " ms).");
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "frequency-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, frequencyCheckpointMs);
+        checkpointer.scheduleWithFixedDelay(frequencyStore::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     // ==========================================
     //      CHARGEMENT ET PERSISTENCE (I/O)
     // ==========================================
 
+    /**
+     * Charge le lexique depuis l'image binaire si elle correspond aux fichiers texte ;
+     * sinon analyse les fichiers texte puis réécrit l'image pour le prochain démarrage.
+     * Dans les deux cas, gabarits et pipelines sont compilés à partir du lexique chargé.
+     */
+    private void loadLexicon() {
+        long stamp = lexicon.sourceStamp();
+        LexiconImage.Contents contents = lexicon.loadImage(stamp);
+        if (contents != null) {
+            System.out.println("✅ Lexique chargé depuis l'image binaire.");
+        } else {
+            List<String> roots = readRoots(LexiconStore.ROOTS_FILE);
+            List<String[]> schemes = readSchemes(LexiconStore.SCHEMES_FILE);
+            contents = new LexiconImage.Contents(roots == null ? List.of() : roots,
+                    schemes == null ? List.of() : schemes, readTransformations());
+            lexicon.saveImage(stamp, contents);
+        }
+        insertRoots(contents.roots);
+        applySchemes(contents.schemes);
+        ruleSet.set(ruleSet.get().withTransformations(contents.groups));
+    }
+
     @Override
     public void loadRoots(String fileName) {
-        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
-        if (is == null) {
-            System.err.println("Fichier de racines introuvable : " + fileName);
-            return;
+        List<String> roots = readRoots(fileName);
+        if (roots != null) insertRoots(roots);
+    }
+
+    private void insertRoots(List<String> roots) {
+        for (String root : roots) {
+            if (!rootStore.contains(root)) statistics.rootAdded(RootAnalyzer.detectRootType(root));
         }
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("#")) continue;
-                rootAVL.insert(line);
+        rootStore.bulkLoad(roots.toArray(new String[0]));
+        for (String root : roots) rootTrie.insert(root);
+        System.out.println(rootStore instanceof PackedRootTable
+                ? "✅ Racines chargées dans la table compacte (" + rootStore.size() + ")."
+                : "✅ Racines chargées dans l'arbre AVL.");
+    }
+
+    /**
+     * Lit le fichier d'un bloc, puis en analyse et trie les lignes en parallèle (par tronçons).
+     * Les lignes qui ne sont pas des racines trilitères sont écartées avec un message.
+     *
+     * @return Les racines triées et sans doublon (prêtes pour bulkLoad), ou null si le fichier est illisible.
+     */
+    private List<String> readRoots(String fileName) {
+        byte[] content;
+        try (InputStream is = lexicon.open(fileName)) {
+            if (is == null) {
+                System.err.println("Fichier de racines introuvable : " + fileName);
+                return null;
             }
-            System.out.println("✅ Racines chargées dans l'arbre AVL.");
+            content = is.readAllBytes();
         } catch (Exception e) {
             System.err.println("Erreur chargement racines: " + e.getMessage());
+            return null;
+        }
+
+        String[] roots = new String(content, StandardCharsets.UTF_8).lines().parallel()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .filter(line -> {
+                    // Ligne invalide ignorée, comme pour les schèmes : elle ne bloque pas le chargement
+                    if (RootAnalyzer.isValidRoot(line)) return true;
+                    System.err.println("Racine ignorée (3 lettres attendues) : " + line);
+                    return false;
+                })
+                .toArray(String[]::new);
+        Arrays.parallelSort(roots);
+        int unique = 0;
+        for (String root : roots) {
+            if (unique == 0 || !roots[unique - 1].equals(root)) roots[unique++] = root;
         }
+        return Arrays.asList(Arrays.copyOf(roots, unique));
     }
 
     @Override
     public void loadSchemes(String fileName) {
-        InputStream is = getClass().getClassLoader().getResourceAsStream(fileName);
-        if (is == null) return;
+        List<String[]> schemes = readSchemes(fileName);
+        if (schemes != null) applySchemes(schemes);
+    }
+
+    private void applySchemes(List<String[]> schemes) {
+        synchronized (writeLock) {
+            for (String[] scheme : schemes) patternTable.put(scheme[0], scheme[1]);
+            ruleSet.set(ruleSet.get().withSchemes(patternTable.entries()));
+        }
+    }
+
+    /**
+     * @return Les couples [nom, règle] du fichier dans leur ordre de déclaration, ou null s'il est introuvable.
+     */
+    private List<String[]> readSchemes(String fileName) {
+        InputStream is = lexicon.open(fileName);
+        if (is == null) return null;
+        List<String[]> schemes = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
             String line;
             while ((line = br.readLine()) != null) {
                 line = line.trim();
                 if (line.isEmpty()) continue;
                 String[] p = line.split("=");
-                if (p.length == 2) {
-                    patternTable.put(p[0].trim(), p[1].trim());
-                }
+                if (p.length == 2) schemes.add(new String[]{p[0].trim(), p[1].trim()});
             }
         } catch (Exception e) {
             System.err.println("Erreur chargement schèmes: " + e.getMessage());
         }
+        return schemes;
     }
 
     @Override
     public void addScheme(String scheme, String rule) {
-        patternTable.put(scheme, rule);
-        saveSchemeToFile(scheme, rule);
-    }
-
-
-    /**
-     * Sauvegarde physiquement un nouveau schème dans le fichier texte.
-     */
-    private void saveSchemeToFile(String scheme, String rule) {
-        String filePath = "src/main/resources/schemes.txt";
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(filePath, true), StandardCharsets.UTF_8))) {
-            writer.newLine();
-            writer.write(scheme + "=" + rule);
-            System.out.println("✅ Fichier schemes.txt mis à jour.");
-        } catch (IOException e) {
-            System.err.println("❌ Erreur écriture schemes.txt: " + e.getMessage());
+        synchronized (writeLock) {
+            lexicon.schemePut(scheme, rule);
+            patternTable.put(scheme, rule);
+            RuleSet next = ruleSet.get().withSchemes(patternTable.entries());
+            int schemeId = next.schemeIds.get(scheme);
+            // Publication d'abord, puis recalcul de la colonne (comme pour un groupe)
+            ruleSet.set(next);
+            derivativeCache.invalidateScheme(schemeId);
+            if (materialize) materializeScheme(next, schemeId);
         }
     }
 
@@ -117,105 +377,320 @@ public class MorphologyServiceImpl implements MorphologyService {
 
     @Override
     public String generate(String root, String schemeName) {
-        if (!rootAVL.contains(root)) throw new RuntimeException("Racine inconnue");
-        String rule = patternTable.get(schemeName);
-        if (rule == null) throw new RuntimeException("Schème inconnu");
-
-        String word = applyRule(root, rule, schemeName);
-        updateDerivativeList(root, word);
+        AVLTree.Node node = rootStore.find(root);
+        if (node == null) throw new RuntimeException("Racine inconnue");
+        RuleSet rules = ruleSet.get();
+        Integer schemeId = rules.schemeIds.get(schemeName);
+        if (schemeId == null) throw new RuntimeException("Schème inconnu");
+
+        String word = derive(rules, node, schemeId);
+        updateDerivativeList(node, schemeName, word);
         return word;
     }
 
     @Override
     public List<String> generateAll(String root) {
-        if (!rootAVL.contains(root)) return Collections.emptyList();
-        List<String> results = new ArrayList<>();
-        for (String[] entry : patternTable.getAll()) {
-            String word = applyRule(root, entry[1], entry[0]);
-            updateDerivativeList(root, word);
+        AVLTree.Node node = rootStore.find(root);
+        if (node == null) return Collections.emptyList();
+        RuleSet rules = ruleSet.get();
+        List<String> results = new ArrayList<>(rules.schemeOrder.length);
+        for (int id : rules.schemeOrder) {
+            String word = derive(rules, node, id);
+            updateDerivativeList(node, rules.schemeNames[id], word);
             results.add(word);
         }
         return results;
     }
 
+    @Override
+    public Map<String, String> generateSchemes(String root, List<String> schemes) {
+        AVLTree.Node node = rootStore.find(root);
+        if (node == null) throw new RuntimeException("Racine inconnue : " + root);
+
+        RuleSet rules = ruleSet.get();
+        int[] ids = rules.schemeOrder;
+        if (schemes != null && !schemes.isEmpty()) {
+            ids = new int[schemes.size()];
+            for (int i = 0; i < ids.length; i++) {
+                Integer id = rules.schemeIds.get(schemes.get(i));
+                if (id == null) throw new RuntimeException("Schème inconnu : " + schemes.get(i));
+                ids[i] = id;
+            }
+        }
+
+        Map<String, String> results = new LinkedHashMap<>();
+        for (int id : ids) {
+            String word = derive(rules, node, id);
+            updateDerivativeList(node, rules.schemeNames[id], word);
+            results.put(rules.schemeNames[id], word);
+        }
+        return results;
+    }
+
+    @Override
+    public Map<String, String> derivativesOf(String root) {
+        AVLTree.Node node = rootStore.find(root);
+        if (node == null) return Collections.emptyMap();
+        RuleSet rules = ruleSet.get();
+        Map<String, String> results = new LinkedHashMap<>();
+        for (int id : rules.schemeOrder) {
+            results.put(rules.schemeNames[id], derive(rules, node, id));
+        }
+        return results;
+    }
+
     @Override
     public ValidationResult validate(String root, String word) {
-        if (!rootAVL.contains(root)) return new ValidationResult(false, null, null);
-        for (String[] entry : patternTable.getAll()) {
-            if (applyRule(root, entry[1], entry[0]).equals(word)) {
-                updateDerivativeList(root, word);
-                return new ValidationResult(true, root, entry[0]);
+        AVLTree.Node node = rootStore.find(root);
+        if (node == null) return new ValidationResult(false, null, null);
+
+        RuleSet rules = ruleSet.get();
+        List<String> schemes = materialize ? lookupSchemes(rules, node, word) : matchSchemes(rules, node, word);
+        if (!schemes.isEmpty()) updateDerivativeList(node, schemes.get(0), word);
+        return new ValidationResult(root, schemes);
+    }
+
+    @Override
+    public List<ValidationResult> validateAll(List<MorphologyRequest> pairs) {
+        ValidationResult[] results = new ValidationResult[pairs.size()];
+        IntStream.range(0, results.length).parallel().forEach(i -> {
+            MorphologyRequest pair = pairs.get(i);
+            results[i] = validate(pair.getRoot(), pair.getWord());
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Recherche dans l'index inverse les schèmes produisant le mot pour cette racine.
+     */
+    private List<String> lookupSchemes(RuleSet rules, AVLTree.Node node, String word) {
+        long[] pairs = reverseIndex.lookup(word);
+        if (pairs.length == 0) return Collections.emptyList();
+
+        List<Integer> ids = new ArrayList<>(1);
+        for (long pair : pairs) {
+            if (ReverseWordIndex.rootId(pair) != node.id) continue;
+            int id = ReverseWordIndex.schemeId(pair);
+            // Colonne en cours de mise à jour : ne retient que les schèmes de l'instantané lu
+            if (id < rules.schemeNames.length && rules.schemeNames[id] != null) ids.add(id);
+        }
+        if (ids.size() > 1) ids.sort(Comparator.comparingInt(id -> rules.schemePosition[id]));
+
+        List<String> schemes = new ArrayList<>(ids.size());
+        for (int id : ids) schemes.add(rules.schemeNames[id]);
+        return schemes;
+    }
+
+    /**
+     * Calcule chaque dérivé de la racine et retient les schèmes qui produisent le mot.
+     */
+    private List<String> matchSchemes(RuleSet rules, AVLTree.Node node, String word) {
+        List<String> schemes = new ArrayList<>(1);
+        for (int id : rules.schemeOrder) {
+            if (derive(rules, node, id).equals(word)) schemes.add(rules.schemeNames[id]);
+        }
+        return schemes;
+    }
+
+    // ==========================================
+    //        ANALYSE SANS RACINE (INVERSE)
+    // ==========================================
+
+    /** Nombre maximal de formes candidates explorées par schème lors de l'analyse. */
+    private static final int MAX_ANALYSIS_CANDIDATES = 64;
+
+    /** Lettres radicales possibles lorsqu'une position a été effacée par une transformation. */
+    private static final char[] WEAK_LETTERS = {'و', 'ي', 'ا', 'ى'};
+
+    @Override
+    public List<ValidationResult> analyze(String word) {
+        if (word == null || word.isEmpty()) return Collections.emptyList();
+        RuleSet rules = ruleSet.get();
+        Map<String, List<String>> matches = new LinkedHashMap<>();
+        Set<String> candidates = new LinkedHashSet<>();
+
+        for (int id : rules.schemeOrder) {
+            // 1. Formes possibles avant transformations (mot tel quel + transformations défaites)
+            candidates.clear();
+            candidates.add(word);
+            for (DerivationPipeline[] byType : rules.pipelines) {
+                byType[id].expandPreimages(candidates, MAX_ANALYSIS_CANDIDATES);
+            }
+
+            // 2. Alignement sur le gabarit inverse, puis confirmation dans l'AVL et par génération
+            for (String candidate : candidates) {
+                char[] letters = rules.schemeTemplates[id].match(candidate);
+                if (letters == null) continue;
+                for (String root : candidateRoots(letters)) {
+                    List<String> schemes = matches.get(root);
+                    if (schemes != null && schemes.contains(rules.schemeNames[id])) continue;
+                    if (!rootStore.contains(root) || !applyRule(rules, root, id).equals(word)) continue;
+                    matches.computeIfAbsent(root, r -> new ArrayList<>()).add(rules.schemeNames[id]);
+                }
+            }
+        }
+
+        List<ValidationResult> results = new ArrayList<>(matches.size());
+        for (Map.Entry<String, List<String>> e : matches.entrySet()) {
+            results.add(new ValidationResult(e.getKey(), e.getValue()));
+        }
+        return results;
+    }
+
+    /**
+     * Énumère les racines compatibles avec les lettres extraites : une lettre inconnue
+     * peut être n'importe quelle lettre faible, et un Waw médian peut provenir d'un Alif
+     * (voir RootAnalyzer.extractOriginalLetters).
+     */
+    private List<String> candidateRoots(char[] letters) {
+        List<String> roots = new ArrayList<>();
+        roots.add("");
+        for (int i = 0; i < letters.length; i++) {
+            char[] options;
+            if (letters[i] == SchemeTemplate.ANY_LETTER) options = WEAK_LETTERS;
+            else if (i == 1 && letters[i] == 'و') options = new char[]{'و', 'ا'};
+            else options = new char[]{letters[i]};
+
+            List<String> next = new ArrayList<>(roots.size() * options.length);
+            for (String prefix : roots) {
+                for (char c : options) next.add(prefix + c);
             }
+            roots = next;
         }
-        return new ValidationResult(false, root, null);
+        return roots;
     }
 
     // ==========================================
     //       MOTEUR DE TRANSFORMATION (INTERNE)
     // ==========================================
 
+    /**
+     * Retourne le dérivé d'une racine pour un schème : lecture de la matrice en mode
+     * matérialisé, sinon lecture du cache puis calcul complet en cas d'absence.
+     */
+    private String derive(RuleSet rules, AVLTree.Node node, int schemeId) {
+        if (materialize) {
+            String word = derivativeMatrix.get(node.id, schemeId);
+            if (word != null) return word;
+            return applyRule(rules, node.root, schemeId);
+        }
+
+        String cached = derivativeCache.get(node.id, schemeId);
+        if (cached != null) return cached;
+        RootType type = RootAnalyzer.detectRootType(node.root);
+        String word = applyRule(rules, node.root, schemeId);
+        // Les écrivains publient l'instantané avant d'invalider : si l'instantané utilisé est
+        // toujours en vigueur après lecture de l'estampille, l'entrée sera périmée par l'invalidation
+        long stamp = derivativeCache.stamp(node.id, type, schemeId);
+        if (ruleSet.get() == rules) derivativeCache.put(node.id, type, schemeId, word, stamp);
+        return word;
+    }
+
     /**
      * Applique les règles de construction et de transformation morphologique.
      */
-    private String applyRule(String root, String rule, String schemeName) {
+    private String applyRule(RuleSet rules, String root, int schemeId) {
         char[] letters = RootAnalyzer.extractOriginalLetters(root);
 
-        // 1. Insertion des lettres de la racine dans le schème
-        String word = rule.replace("{1}", String.valueOf(letters[0]))
-                .replace("{2}", String.valueOf(letters[1]))
-                .replace("{3}", String.valueOf(letters[2]));
+        // 1. Insertion des lettres de la racine dans le gabarit compilé du schème
+        String word = rules.schemeTemplates[schemeId].fill(letters);
 
+        // 2. Transformations selon le type de racine, exceptions et post-traitement
         RootType type = RootAnalyzer.detectRootType(root);
+        return rules.pipelines[type.ordinal()][schemeId].apply(root, word);
+    }
+
+    // ==========================================
+    //     MATÉRIALISATION (RACINES × SCHÈMES)
+    // ==========================================
 
-        // 2. Application séquentielle des transformations selon le type de racine
-        if (type == RootType.LAFIF) {
-            word = applyTransformations(word, "mithal_" + schemeName);
-            word = applyTransformations(word, "lafif_" + schemeName);
-            if (!transformations.containsKey("lafif_" + schemeName)) {
-                word = applyTransformations(word, "naqis_" + schemeName);
+    /**
+     * Précalcule l'intégralité des dérivés de toutes les racines pour tous les schèmes.
+     */
+    private void materializeAll(RuleSet rules) {
+        derivativeMatrix.clear();
+        reverseIndex.clear();
+        // Parcours par identifiants : la table compacte n'a pas à créer ses nœuds
+        rootStore.forEachRoot((rootId, root) -> {
+            for (int id : rules.schemeOrder) {
+                storeDerivative(rules, rootId, root, id);
             }
-        } else if (type == RootType.AJWAF) {
-            word = applyTransformations(word, "ajwaf_" + schemeName);
-        } else if (type == RootType.NAQIS) {
-            word = applyTransformations(word, "naqis_" + schemeName);
-        } else if (type == RootType.MITHAL) {
-            word = applyTransformations(word, "mithal_" + schemeName);
-        } else {
-            word = applyTransformations(word, type.name().toLowerCase() + "_" + schemeName);
-        }
+        });
+        System.out.println("✅ Dérivés matérialisés (" + rootStore.size() + " racines × " + rules.schemeOrder.length + " schèmes).");
+    }
 
-        // 3. Gestion des exceptions spécifiques
-        word = applyTransformations(word, "exception_" + root + "_" + schemeName);
+    /**
+     * Recalcule la colonne d'un schème ajouté ou modifié.
+     */
+    private void materializeScheme(RuleSet rules, int schemeId) {
+        rootStore.forEachRoot((rootId, root) -> storeDerivative(rules, rootId, root, schemeId));
+    }
 
-        // 4. Post-traitement phonétique (Tanwin sur Ism Fa'il faible)
-        if ("فاعل".equals(schemeName) && (type == RootType.NAQIS || type == RootType.LAFIF || type == RootType.AJWAF)) {
-            if (word.endsWith("ي")) {
-                word = word.substring(0, word.length() - 1) + "ٍ";
-            }
-        }
-        return word;
+    /**
+     * Efface la colonne d'un schème supprimé (matrice et index inverse).
+     */
+    private void dematerializeScheme(int schemeId) {
+        rootStore.forEachRoot((rootId, root) -> {
+            String old = derivativeMatrix.get(rootId, schemeId);
+            if (old != null) reverseIndex.remove(old, rootId, schemeId);
+        });
+        derivativeMatrix.clearColumn(schemeId);
     }
 
     /**
-     * Exécute les opérations de remplacement (standard ou final) définies dans les règles.
+     * Recalcule uniquement les cellules dépendant d'un groupe de transformations :
+     * une cellule pour une exception, les racines des types concernés pour un groupe par type.
      */
-    private String applyTransformations(String word, String key) {
-        List<Map<String, String>> ops = transformations.get(key);
-        if (ops == null) return word;
-
-        for (Map<String, String> op : ops) {
-            String type = op.get("type");
-            String to = op.get("to");
-            if ("replace_final".equals(type)) {
-                if (word.length() > 0) {
-                    word = word.substring(0, word.length() - 1) + to;
-                }
-            } else {
-                String from = op.get("from");
-                word = word.replace(from, to);
+    private void materializeGroup(RuleSet rules, String groupKey) {
+        TransformationKey key = TransformationKey.parse(groupKey);
+        if (key == null) return;
+        Integer schemeId = rules.schemeIds.get(key.getScheme());
+        if (schemeId == null) return;
+
+        if (key.isException()) {
+            AVLTree.Node node = rootStore.find(key.getExceptionRoot());
+            if (node != null) storeDerivative(rules, node.id, node.root, schemeId);
+            return;
+        }
+        rootStore.forEachRoot((rootId, root) -> {
+            if (key.getAffectedTypes().contains(RootAnalyzer.detectRootType(root))) {
+                storeDerivative(rules, rootId, root, schemeId);
             }
+        });
+    }
+
+    /**
+     * Invalide dans le cache les seuls dérivés dépendant d'un groupe de transformations :
+     * une entrée pour une exception, une version (type, schème) pour un groupe par type.
+     */
+    private void invalidateGroup(RuleSet rules, String groupKey) {
+        TransformationKey key = TransformationKey.parse(groupKey);
+        if (key == null) {
+            derivativeCache.clear();
+            return;
         }
-        return word;
+        Integer schemeId = rules.schemeIds.get(key.getScheme());
+        if (schemeId == null) return;
+
+        if (key.isException()) {
+            AVLTree.Node node = rootStore.find(key.getExceptionRoot());
+            if (node != null) derivativeCache.invalidate(node.id, schemeId);
+            return;
+        }
+        for (RootType type : key.getAffectedTypes()) {
+            derivativeCache.invalidate(type, schemeId);
+        }
+    }
+
+    /**
+     * Calcule et enregistre une cellule de la matrice en tenant l'index inverse à jour.
+     */
+    private void storeDerivative(RuleSet rules, int rootId, String root, int schemeId) {
+        String word = applyRule(rules, root, schemeId);
+        String old = derivativeMatrix.get(rootId, schemeId);
+        if (old != null) reverseIndex.remove(old, rootId, schemeId);
+        derivativeMatrix.set(rootId, schemeId, word);
+        reverseIndex.add(word, rootId, schemeId);
     }
 
     // ==========================================
@@ -223,13 +698,14 @@ public class MorphologyServiceImpl implements MorphologyService {
     // ==========================================
 
     /**
-     * Charge et parse le fichier transformations.txt pour alimenter le cache mémoire.
+     * Charge et parse le fichier transformations.txt (répertoire de données ou classpath).
+     *
+     * @return Les groupes dans leur ordre de déclaration.
      */
-    private void loadAndParseTransformations() {
-        transformationGroups.clear();
-        transformations.clear();
-        InputStream is = getClass().getClassLoader().getResourceAsStream("transformations.txt");
-        if (is == null) return;
+    private List<TransformationGroup> readTransformations() {
+        List<TransformationGroup> groups = new ArrayList<>();
+        InputStream is = lexicon.open(LexiconStore.TRANSFORMATIONS_FILE);
+        if (is == null) return groups;
 
         try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
             String line;
@@ -248,14 +724,14 @@ public class MorphologyServiceImpl implements MorphologyService {
                     String[] parts = line.split(":", 2);
                     current = new TransformationGroup();
                     current.setKey(parts[0].trim());
-                    transformationGroups.add(current);
+                    groups.add(current);
                     if (parts.length > 1) parseRules(current, parts[1].trim());
                 }
             }
-            rebuildTransformationsMapFromGroups();
         } catch (Exception e) {
             e.printStackTrace();
         }
+        return groups;
     }
 
     /**
@@ -284,88 +760,63 @@ public class MorphologyServiceImpl implements MorphologyService {
         }
     }
 
-    /**
-     * Convertit la liste des groupes en Map optimisée pour l'application des règles.
-     */
-    private void rebuildTransformationsMapFromGroups() {
-        for (TransformationGroup group : transformationGroups) {
-            List<Map<String, String>> opsList = new ArrayList<>();
-            for (TransformationRule rule : group.getRules()) {
-                Map<String, String> op = new HashMap<>();
-                op.put("type", rule.getType());
-                op.put("to", rule.getTo());
-                if ("replace".equals(rule.getType())) op.put("from", rule.getFrom());
-                opsList.add(op);
-            }
-            transformations.put(group.getKey(), opsList);
-        }
-    }
-
-    /**
-     * Enregistre les modifications des transformations dans le fichier physique.
-     */
-    private void saveTransformationsToFile() {
-        String path = "src/main/resources/transformations.txt";
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(path), StandardCharsets.UTF_8))) {
-            for (TransformationGroup group : transformationGroups) {
-                if (group.getComment() != null) {
-                    for (String line : group.getComment().split("\n")) {
-                        writer.write("# " + line.trim());
-                        writer.newLine();
-                    }
-                }
-                writer.write(group.getKey() + ":");
-                boolean first = true;
-                for (TransformationRule rule : group.getRules()) {
-                    if (!first) writer.write(";");
-                    first = false;
-                    if ("replace_final".equals(rule.getType())) writer.write("replace_final=" + rule.getTo());
-                    else writer.write("replace=" + rule.getFrom() + ">" + rule.getTo());
-                }
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-
-
-
     // ==========================================
     //        SERVICES D'ADMINISTRATION
     // ==========================================
 
     @Override
     public List<TransformationGroup> getAllTransformationGroups() {
-        return new ArrayList<>(transformationGroups);
+        return new ArrayList<>(ruleSet.get().groups);
     }
 
     @Override
     public TransformationGroup getTransformationGroup(String key) {
-        return transformationGroups.stream()
+        return ruleSet.get().groups.stream()
                 .filter(g -> g.getKey().equalsIgnoreCase(key))
                 .findFirst().orElse(null);
     }
 
     @Override
     public TransformationGroup saveTransformationGroup(TransformationGroup group) {
-        transformationGroups.removeIf(g -> g.getKey().equalsIgnoreCase(group.getKey()));
-        transformationGroups.add(group);
-        saveTransformationsToFile();
-        loadAndParseTransformations();
-        return group;
+        synchronized (writeLock) {
+            // Journalisé d'abord, puis seul le groupe modifié est recompilé
+            lexicon.groupPut(group);
+            RuleSet rules = ruleSet.get().withGroup(group);
+            ruleSet.set(rules);
+            invalidateGroup(rules, group.getKey());
+            if (materialize) materializeGroup(rules, group.getKey());
+            return group;
+        }
     }
 
     @Override
     public boolean deleteTransformationGroup(String key) {
-        boolean removed = transformationGroups.removeIf(g -> g.getKey().equalsIgnoreCase(key));
-        if (removed) {
-            saveTransformationsToFile();
-            loadAndParseTransformations();
+        synchronized (writeLock) {
+            boolean removed = ruleSet.get().groups.stream().anyMatch(g -> g.getKey().equalsIgnoreCase(key));
+            if (removed) {
+                lexicon.groupDelete(key);
+                RuleSet rules = ruleSet.get().withoutGroup(key);
+                ruleSet.set(rules);
+                invalidateGroup(rules, key);
+                if (materialize) materializeGroup(rules, key);
+            }
+            return removed;
         }
-        return removed;
+    }
+
+    @Override
+    public CacheStats getCacheStats() {
+        CacheStats stats = new CacheStats();
+        long hits = derivativeCache.getHits();
+        long misses = derivativeCache.getMisses();
+        stats.setEnabled(derivativeCache.getMaxSize() > 0);
+        stats.setMaxSize(derivativeCache.getMaxSize());
+        stats.setSize(derivativeCache.size());
+        stats.setHits(hits);
+        stats.setMisses(misses);
+        stats.setEvictions(derivativeCache.getEvictions());
+        stats.setHitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+        return stats;
     }
 
     // ==========================================
@@ -374,77 +825,190 @@ public class MorphologyServiceImpl implements MorphologyService {
 
     @Override
     public List<String> getRootsList() {
-        List<String> roots = new ArrayList<>();
-        collectRoots(rootAVL.getRootNode(), roots);
-        return roots;
+        return rootStore.getAllRoots();
+    }
+
+    @Override
+    public List<String> searchRoots(String prefix, int limit) {
+        return rootTrie.search(prefix == null ? "" : prefix.trim(), limit);
     }
 
-    private void collectRoots(AVLTree.Node node, List<String> list) {
-        if (node == null) return;
-        collectRoots(node.left, list);
-        list.add(node.root);
-        collectRoots(node.right, list);
+    @Override
+    public int getRootCount() {
+        return rootStore.size();
+    }
+
+    @Override
+    public List<String> getRootsPage(int offset, int limit) {
+        return rootStore.getRoots(offset, limit);
     }
 
+    @Override
+    public int getRootRank(String root) {
+        return rootStore.contains(root) ? rootStore.rank(root) : -1;
+    }
+
+    @Override
+    public String selectRoot(int k) {
+        return rootStore.select(k);
+    }
+
+    @Override
+    public List<String> getRootsRange(String from, String to, int limit) {
+        return rootStore.getRange(blankToNull(from), blankToNull(to), limit);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+
     @Override
     public List<String> getSchemesList() {
-        return patternTable.getAll().stream()
-                .map(entry -> entry[0])
+        RuleSet rules = ruleSet.get();
+        return Arrays.stream(rules.schemeOrder)
+                .mapToObj(id -> rules.schemeNames[id])
                 .sorted().collect(Collectors.toList());
     }
 
     @Override
     public Set<String> getDerivatives(String root) {
-        AVLTree.Node node = rootAVL.find(root);
+        AVLTree.Node node = rootStore.find(root);
         if (node == null) return Collections.emptySet();
-        return node.validatedDerivatives.stream()
-                .map(d -> d.word + " (f=" + d.frequency + ")")
+        flushUsage();
+        return node.getValidatedDerivatives().stream()
+                .map(d -> d.word + " (f=" + d.getFrequency() + ")")
                 .collect(Collectors.toSet());
     }
 
-    private void updateDerivativeList(String root, String word) {
-        AVLTree.Node node = rootAVL.find(root);
-        if (node != null) {
-            for (AVLTree.Derivative d : node.validatedDerivatives) {
-                if (d.word.equals(word)) {
-                    d.frequency++;
-                    return;
-                }
+    // Sans verrou : le nœud indexe ses dérivés par mot avec des compteurs concurrents.
+    // En mode différé, la requête se contente de déposer l'usage dans un tampon.
+    private void updateDerivativeList(AVLTree.Node node, String scheme, String word) {
+        if (usageRecorder != null) usageRecorder.record(node, scheme, word);
+        else applyUsage(node, scheme, word, 1);
+    }
+
+    /**
+     * Applique des usages au nœud et, s'il est configuré, au fichier des fréquences.
+     * Un usage d'un schème supprimé entre-temps (requête en cours ou usage différé) est ignoré :
+     * il ne doit pas recréer les dérivés retirés par deleteScheme.
+     */
+    private void applyUsage(AVLTree.Node node, String scheme, String word, long count) {
+        if (!ruleSet.get().schemeIds.containsKey(scheme)) return;
+        recordUsage(node, scheme, word, count);
+        if (frequencyStore != null) frequencyStore.add(node.root, scheme, word, count);
+    }
+
+    /**
+     * Compte les usages sur le nœud et dans les statistiques (un dérivé nouveau pour sa racine
+     * n'est compté qu'une fois).
+     */
+    private void recordUsage(AVLTree.Node node, String scheme, String word, long count) {
+        if (node.recordDerivative(word, scheme, count)) {
+            RootType type = RootAnalyzer.detectRootType(node.root);
+            statistics.derivativeAdded(type, scheme);
+            // Schème supprimé pendant l'enregistrement : son retrait a pu passer sur ce nœud avant
+            // la création du dérivé. Le retrait est refait ici (chaque dérivé n'est retiré qu'une fois)
+            if (!ruleSet.get().schemeIds.containsKey(scheme)) {
+                int removed = node.removeDerivatives(scheme);
+                if (removed > 0) statistics.derivativesRemoved(type, removed);
+                statistics.schemeRemoved(scheme);
             }
-            node.validatedDerivatives.add(new AVLTree.Derivative(word));
         }
+        statistics.usageRecorded(count);
+        topWords.add(word, count);
+        topRoots.add(node.root, count);
+    }
+
+    /**
+     * Retire des racines les dérivés attribués à un schème supprimé (déjà retiré de l'instantané
+     * publié), et les décompte des statistiques : totaux, répartitions et listes par racine
+     * restent ainsi cohérents.
+     * Un mot que produit aussi un autre schème sera réattribué à sa prochaine validation.
+     */
+    private void removeSchemeDerivatives(String scheme) {
+        flushUsage(); // Les usages en attente de ce schème sont d'abord appliqués, puis retirés
+        rootStore.forEachNode(node -> {
+            int removed = node.removeDerivatives(scheme);
+            if (removed > 0) statistics.derivativesRemoved(RootAnalyzer.detectRootType(node.root), removed);
+        });
+        statistics.schemeRemoved(scheme);
+    }
+
+    /**
+     * Applique les usages en attente avant une lecture des statistiques.
+     */
+    private void flushUsage() {
+        if (usageRecorder != null) usageRecorder.flush();
+    }
+
+    @Override
+    public UsageStats getUsageStats() {
+        UsageStats stats = new UsageStats();
+        stats.setWriteBehind(usageRecorder != null);
+        if (usageRecorder == null) return stats;
+        stats.setOverflowPolicy(usageRecorder.getPolicy().name());
+        stats.setRecorded(usageRecorder.getRecorded());
+        stats.setDropped(usageRecorder.getDropped());
+        stats.setApplied(usageRecorder.getApplied());
+        stats.setBatches(usageRecorder.getBatches());
+        stats.setPending(usageRecorder.getPending());
+        return stats;
     }
 
     // ===================== STATISTIQUES (AJOUT MAJEUR) =====================
+
+    /**
+     * Résumé servi depuis les compteurs incrémentaux : indépendant du nombre de racines et de dérivés.
+     */
     @Override
     public StatisticsResponse computeStatistics() {
+        flushUsage();
         StatisticsResponse stats = new StatisticsResponse();
-        Map<String, RootStat> roots = new LinkedHashMap<>();
+        int totalRoots = rootStore.size();
+        long totalDerivatives = statistics.getDerivatives();
 
-        List<AVLTree.Node> nodes = rootAVL.getAllNodes();
-        int totalDerivatives = 0;
+        stats.setTotalRoots(totalRoots);
+        stats.setTotalDerivatives(totalDerivatives);
+        stats.setTotalPatterns(ruleSet.get().schemeOrder.length);
+        stats.setTotalValidations(statistics.getValidations());
+        stats.setDroppedUsages(usageRecorder == null ? 0 : usageRecorder.getDropped());
+        stats.setDensity(totalRoots == 0 ? 0 : (double) totalDerivatives / totalRoots);
+        stats.setRootsByType(statistics.getRootsByType());
+        stats.setDerivativesByType(statistics.getDerivativesByType());
+        stats.setDerivativesByScheme(statistics.getDerivativesByScheme());
+        return stats;
+    }
+
+    @Override
+    public TopStatistics getTopStatistics(int limit) {
+        flushUsage();
+        TopStatistics top = new TopStatistics();
+        top.setCapacity(topWords.getCapacity());
+        top.setWords(toTopItems(topWords.top(limit)));
+        top.setRoots(toTopItems(topRoots.top(limit)));
+        return top;
+    }
+
+    private static List<TopItem> toTopItems(List<HeavyHitters.Entry> entries) {
+        List<TopItem> items = new ArrayList<>(entries.size());
+        for (HeavyHitters.Entry e : entries) items.add(new TopItem(e.item, e.count, e.error));
+        return items;
+    }
 
-        for (AVLTree.Node node : nodes) {
-            // transforme validatedDerivatives en simple liste de String
-            List<String> derivatives = node.validatedDerivatives.stream()
+    @Override
+    public List<RootStat> getRootStatistics(int offset, int limit) {
+        flushUsage();
+        List<RootStat> page = new ArrayList<>();
+        for (String root : rootStore.getRoots(offset, limit)) {
+            AVLTree.Node node = rootStore.find(root);
+            if (node == null) continue; // Racine retirée entre-temps
+            List<String> derivatives = node.getValidatedDerivatives().stream()
                     .map(d -> d.word)  // récupère juste le mot
                     .toList();
-
-            totalDerivatives += derivatives.size();
-            roots.put(node.root, new RootStat(node.root, derivatives)); // ✅ Utilise node.root
+            page.add(new RootStat(node.root, derivatives));
         }
-
-        stats.setRoots(roots);
-        stats.setTotalRoots(roots.size());
-        stats.setTotalDerivatives(totalDerivatives);
-        stats.setTotalPatterns(patternTable.getAll().size());
-        // ou patternTable.size() selon ton implémentation
-        stats.setDensity(
-                roots.isEmpty() ? 0 :
-                        (double) totalDerivatives / roots.size()
-        );
-
-        return stats;
+        return page;
     }
 
 
@@ -454,7 +1018,12 @@ public class MorphologyServiceImpl implements MorphologyService {
 
     @Override
     public Object getTreeStructure() {
-        return rootAVL.getRootNode();
+        if (rootStore instanceof AVLTree tree) return tree.getRootNode();
+        if (rootStore instanceof PersistentAVLTree persistent) return persistent.exportTree(); // Version courante
+        // Stockage compact : arbre construit à la demande, pour la seule visualisation
+        AVLTree tree = new AVLTree();
+        tree.bulkLoad(rootStore.getAllRoots().toArray(new String[0]));
+        return tree.getRootNode();
     }
 
     @Override
@@ -486,70 +1055,50 @@ public class MorphologyServiceImpl implements MorphologyService {
 
     @Override
     public void updateScheme(String scheme, String newRule) {
-        // Vérifier existence
-        if (patternTable.get(scheme) == null) {
-            throw new IllegalArgumentException("Schème non trouvé : " + scheme);
+        synchronized (writeLock) {
+            // Vérifier existence (sous le verrou : deux écritures concurrentes ne passent pas toutes deux)
+            if (!ruleSet.get().schemeIds.containsKey(scheme)) {
+                throw new IllegalArgumentException("Schème non trouvé : " + scheme);
+            }
+            lexicon.schemePut(scheme, newRule);
+
+            // Mise à jour en mémoire : publication, puis recalcul de la colonne
+            patternTable.put(scheme, newRule);
+            RuleSet next = ruleSet.get().withSchemes(patternTable.entries());
+            int schemeId = next.schemeIds.get(scheme);
+            ruleSet.set(next);
+            derivativeCache.invalidateScheme(schemeId);
+            if (materialize) materializeScheme(next, schemeId);
         }
-
-        // Mise à jour en mémoire
-        patternTable.put(scheme, newRule);
-
-        // Persistance complète (on réécrit tout le fichier)
-        rewriteAllSchemes();
     }
 
     @Override
     public void deleteScheme(String scheme) {
-        // Vérifier existence
-        if (patternTable.get(scheme) == null) {
-            throw new IllegalArgumentException("Schème non trouvé : " + scheme);
-        }
-
-        // Suppression en mémoire
-        patternTable.remove(scheme);
-
-        // Persistance complète
-        rewriteAllSchemes();
-    }
-
-    /**
-     * Réécrit TOUT le fichier schemes.txt à partir de l'état actuel de la table.
-     * Nécessaire pour update et delete (append ne suffit plus).
-     */
-    private void rewriteAllSchemes() {
-        String filePath = "src/main/resources/schemes.txt";
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(new FileOutputStream(filePath, false), StandardCharsets.UTF_8))) {
-
-            // On écrit d'abord les commentaires si tu en avais (optionnel)
-            writer.write("# schemes.txt - généré le " + new java.util.Date());
-            writer.newLine();
-            writer.newLine();
-
-            // Écriture de toutes les entrées
-            for (String[] entry : patternTable.getAll()) {
-                writer.write(entry[0] + "=" + entry[1]);
-                writer.newLine();
+        synchronized (writeLock) {
+            // Vérifier existence sur l'instantané courant, sous le verrou
+            RuleSet current = ruleSet.get();
+            Integer schemeId = current.schemeIds.get(scheme);
+            if (schemeId == null) {
+                throw new IllegalArgumentException("Schème non trouvé : " + scheme);
             }
-
-            System.out.println("Fichier schemes.txt réécrit avec succès (" + patternTable.getAll().size() + " schèmes).");
-
-        } catch (IOException e) {
-            System.err.println("Erreur réécriture schemes.txt : " + e.getMessage());
-            throw new RuntimeException("Échec persistance des schèmes", e);
+            lexicon.schemeDelete(scheme);
+
+            // Suppression en mémoire : publication d'abord, pour que les usages arrivés ensuite
+            // soient ignorés, puis retrait des dérivés déjà enregistrés
+            patternTable.remove(scheme);
+            ruleSet.set(current.withSchemes(patternTable.entries()));
+            derivativeCache.invalidateScheme(schemeId);
+            if (materialize) dematerializeScheme(schemeId);
+            removeSchemeDerivatives(scheme);
         }
     }
 
-
-
-
-
-
     @Override
     public Map<String, String> getSchemesWithRules() {
+        RuleSet rules = ruleSet.get();
         Map<String, String> result = new LinkedHashMap<>(); // pour garder un ordre prévisible
-        for (String[] entry : patternTable.getAll()) {
-            result.put(entry[0], entry[1]);
+        for (int id : rules.schemeOrder) {
+            result.put(rules.schemeNames[id], rules.schemeRules[id]);
         }
         return result;
     }
@@ -0,0 +1,191 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.util.CompiledTransformation;
+import com.morphology.arabic_morphology_app.util.DerivationPipeline;
+import com.morphology.arabic_morphology_app.util.SchemeTemplate;
+import com.morphology.arabic_morphology_app.util.TransformationKey;
+
+import java.util.*;
+
+/**
+ * Instantané immuable de l'ensemble des règles morphologiques : index des schèmes,
+ * gabarits compilés, groupes de transformations et pipelines pré-résolus.
+ * Un instantané n'est jamais modifié après sa construction : chaque modification
+ * produit un nouvel instantané (withSchemes, withTransformations) publié atomiquement
+ * par le service, de sorte qu'un lecteur ne voit jamais un jeu de règles à moitié construit.
+ */
+final class RuleSet {
+
+    static final RuleSet EMPTY = new RuleSet(new String[0], new String[0], new SchemeTemplate[0],
+            Collections.emptyMap(), new int[0], new int[0],
+            Collections.emptyMap(), Collections.emptyList(),
+            new DerivationPipeline[RootType.values().length][0]);
+
+    // Index des schèmes : identifiants stables (attribués à l'ajout, libérés à la suppression)
+    final String[] schemeNames;              // par identifiant (null si libre)
+    final String[] schemeRules;              // règle brute par identifiant
+    final SchemeTemplate[] schemeTemplates;  // gabarit compilé par identifiant
+    final Map<String, Integer> schemeIds;
+    final int[] schemeOrder;                 // identifiants dans l'ordre de patternTable
+    final int[] schemePosition;              // position de chaque identifiant dans schemeOrder
+
+    // Transformations compilées (clé: type_schème) et groupes structurés pour l'administration
+    final Map<String, CompiledTransformation> transformations;
+    final List<TransformationGroup> groups;
+
+    // Pipelines pré-résolus, indexés par [RootType.ordinal()][identifiant de schème]
+    final DerivationPipeline[][] pipelines;
+
+    private RuleSet(String[] schemeNames, String[] schemeRules, SchemeTemplate[] schemeTemplates,
+                    Map<String, Integer> schemeIds, int[] schemeOrder, int[] schemePosition,
+                    Map<String, CompiledTransformation> transformations, List<TransformationGroup> groups,
+                    DerivationPipeline[][] pipelines) {
+        this.schemeNames = schemeNames;
+        this.schemeRules = schemeRules;
+        this.schemeTemplates = schemeTemplates;
+        this.schemeIds = schemeIds;
+        this.schemeOrder = schemeOrder;
+        this.schemePosition = schemePosition;
+        this.transformations = transformations;
+        this.groups = groups;
+        this.pipelines = pipelines;
+    }
+
+    // ==========================================
+    //       CONSTRUCTION DE L'INSTANTANÉ SUIVANT
+    // ==========================================
+
+    /**
+     * Construit l'instantané suivant pour une nouvelle liste de schèmes.
+     * Un schème conserve son identifiant tant qu'il existe ; les identifiants libérés par une
+     * suppression sont réattribués aux nouveaux schèmes. Les gabarits des règles inchangées sont réutilisés.
+     *
+     * @param entries Les couples [nom, règle] dans l'ordre de patternTable.
+     * @return Le nouvel instantané.
+     */
+    RuleSet withSchemes(List<String[]> entries) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (String[] entry : entries) {
+            Integer id = schemeIds.get(entry[0]);
+            if (id != null) ids.put(entry[0], id);
+        }
+
+        int capacity = Math.max(entries.size(), schemeNames.length);
+        String[] names = new String[capacity];
+        for (Map.Entry<String, Integer> e : ids.entrySet()) names[e.getValue()] = e.getKey();
+
+        int[] order = new int[entries.size()];
+        int[] position = new int[capacity];
+        String[] rules = new String[capacity];
+        SchemeTemplate[] templates = new SchemeTemplate[capacity];
+        int free = 0;
+        for (int i = 0; i < order.length; i++) {
+            String name = entries.get(i)[0];
+            String rule = entries.get(i)[1];
+            Integer id = ids.get(name);
+            if (id == null) {
+                while (names[free] != null) free++;
+                id = free;
+                names[id] = name;
+                ids.put(name, id);
+            }
+            order[i] = id;
+            position[id] = i;
+            rules[id] = rule;
+            boolean unchanged = id < schemeRules.length && rule.equals(schemeRules[id]) && name.equals(schemeNames[id]);
+            templates[id] = unchanged ? schemeTemplates[id] : SchemeTemplate.compile(rule);
+        }
+
+        return new RuleSet(names, rules, templates, Collections.unmodifiableMap(ids), order, position,
+                transformations, groups, resolvePipelines(names, ids, transformations));
+    }
+
+    /**
+     * Construit l'instantané suivant pour une nouvelle liste de groupes de transformations.
+     * Chaque groupe est compilé en automate de remplacement (en cas de clé dupliquée, le dernier l'emporte).
+     *
+     * @param newGroups Les groupes dans leur ordre de déclaration.
+     * @return Le nouvel instantané.
+     */
+    RuleSet withTransformations(List<TransformationGroup> newGroups) {
+        Map<String, CompiledTransformation> compiled = new HashMap<>();
+        for (TransformationGroup group : newGroups) {
+            compiled.put(group.getKey(), CompiledTransformation.compile(group.getRules()));
+        }
+        return withCompiled(new ArrayList<>(newGroups), compiled);
+    }
+
+    /**
+     * Construit l'instantané suivant après ajout ou remplacement d'un seul groupe :
+     * seul ce groupe est compilé, les automates des autres groupes sont réutilisés.
+     *
+     * @param group Le groupe à ajouter (remplace les groupes de même clé, sans tenir compte de la casse).
+     * @return Le nouvel instantané.
+     */
+    RuleSet withGroup(TransformationGroup group) {
+        List<TransformationGroup> next = new ArrayList<>(groups.size() + 1);
+        Map<String, CompiledTransformation> compiled = new HashMap<>(transformations);
+        removeGroup(group.getKey(), next, compiled);
+        next.add(group);
+        compiled.put(group.getKey(), CompiledTransformation.compile(group.getRules()));
+        return withCompiled(next, compiled);
+    }
+
+    /**
+     * Construit l'instantané suivant après suppression d'un groupe.
+     *
+     * @param key La clé du groupe (sans tenir compte de la casse).
+     * @return Le nouvel instantané.
+     */
+    RuleSet withoutGroup(String key) {
+        List<TransformationGroup> next = new ArrayList<>(groups.size());
+        Map<String, CompiledTransformation> compiled = new HashMap<>(transformations);
+        removeGroup(key, next, compiled);
+        return withCompiled(next, compiled);
+    }
+
+    /**
+     * Recopie dans next les groupes dont la clé diffère, et retire les autres des automates compilés.
+     */
+    private void removeGroup(String key, List<TransformationGroup> next, Map<String, CompiledTransformation> compiled) {
+        for (TransformationGroup g : groups) {
+            if (g.getKey().equalsIgnoreCase(key)) compiled.remove(g.getKey());
+            else next.add(g);
+        }
+    }
+
+    private RuleSet withCompiled(List<TransformationGroup> newGroups, Map<String, CompiledTransformation> compiled) {
+        return new RuleSet(schemeNames, schemeRules, schemeTemplates, schemeIds, schemeOrder, schemePosition,
+                Collections.unmodifiableMap(compiled), Collections.unmodifiableList(newGroups),
+                resolvePipelines(schemeNames, schemeIds, compiled));
+    }
+
+    /**
+     * Résout, pour chaque type de racine et chaque schème, l'ordre des groupes à appliquer.
+     */
+    private static DerivationPipeline[][] resolvePipelines(String[] names, Map<String, Integer> ids,
+                                                           Map<String, CompiledTransformation> transformations) {
+        // Exceptions indexées par schème puis par racine (clé: exception_racine_schème)
+        List<Map<String, CompiledTransformation>> exceptions = new ArrayList<>();
+        for (int id = 0; id < names.length; id++) exceptions.add(new HashMap<>());
+        for (Map.Entry<String, CompiledTransformation> e : transformations.entrySet()) {
+            TransformationKey key = TransformationKey.parse(e.getKey());
+            if (key == null || !key.isException()) continue;
+            Integer id = ids.get(key.getScheme());
+            if (id != null) exceptions.get(id).put(key.getExceptionRoot(), e.getValue());
+        }
+
+        RootType[] types = RootType.values();
+        DerivationPipeline[][] resolved = new DerivationPipeline[types.length][names.length];
+        for (RootType type : types) {
+            for (int id = 0; id < names.length; id++) {
+                if (names[id] == null) continue;
+                resolved[type.ordinal()][id] = DerivationPipeline.resolve(
+                        type, names[id], transformations, exceptions.get(id));
+            }
+        }
+        return resolved;
+    }
+}
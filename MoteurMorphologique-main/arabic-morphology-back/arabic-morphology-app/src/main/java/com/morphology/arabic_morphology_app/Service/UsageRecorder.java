@@ -0,0 +1,183 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.storage.AVLTree;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enregistrement différé (write-behind) des usages de dérivés.
+ * Les threads de requête déposent chaque événement (racine, schème, mot) dans un tampon borné
+ * choisi selon le thread, puis un agrégateur en arrière-plan vide périodiquement les tampons,
+ * regroupe les événements par racine, schème et mot, et transmet les compteurs par lots au Sink.
+ *
+ * Lorsqu'un tampon est plein, la politique DROP abandonne l'événement (compté),
+ * la politique BLOCK fait attendre le thread appelant jusqu'à ce qu'une place se libère.
+ */
+final class UsageRecorder {
+
+    /** Politique appliquée lorsqu'un tampon est plein. */
+    enum OverflowPolicy { DROP, BLOCK }
+
+    /** Destination des usages agrégés. */
+    interface Sink {
+        void apply(AVLTree.Node node, String scheme, String word, long count);
+    }
+
+    /** Un usage en attente d'agrégation. */
+    private static final class Event {
+        final AVLTree.Node node;
+        final String scheme;
+        final String word;
+
+        Event(AVLTree.Node node, String scheme, String word) {
+            this.node = node;
+            this.scheme = scheme;
+            this.word = word;
+        }
+    }
+
+    private final ArrayBlockingQueue<Event>[] stripes;
+    private final OverflowPolicy policy;
+    private final Sink sink;
+    private final ScheduledExecutorService aggregator;
+
+    // Compteurs de suivi
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * @param stripeCount     Nombre de tampons (répartition des threads).
+     * @param stripeCapacity  Capacité de chaque tampon.
+     * @param policy          Politique en cas de tampon plein.
+     * @param flushIntervalMs Intervalle entre deux vidages, en millisecondes.
+     * @param sink            Destination des usages agrégés.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Tableau générique : pas de création directe possible
+    UsageRecorder(int stripeCount, int stripeCapacity, OverflowPolicy policy, long flushIntervalMs, Sink sink) {
+        this.stripes = new ArrayBlockingQueue[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new ArrayBlockingQueue<>(Math.max(1, stripeCapacity));
+        this.policy = policy;
+        this.sink = sink;
+        this.aggregator = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "usage-aggregator");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        aggregator.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // ==========================================
+    //        CHEMIN DE REQUÊTE (PRODUCTEURS)
+    // ==========================================
+
+    /**
+     * Dépose un usage dans le tampon du thread courant, sans toucher aux statistiques.
+     */
+    void record(AVLTree.Node node, String scheme, String word) {
+        ArrayBlockingQueue<Event> stripe = stripes[stripeIndex()];
+        Event event = new Event(node, scheme, word);
+        if (stripe.offer(event)) {
+            recorded.increment();
+            return;
+        }
+        if (policy == OverflowPolicy.DROP) {
+            dropped.increment();
+            return;
+        }
+        try {
+            stripe.put(event);
+            recorded.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    private int stripeIndex() {
+        if (stripes.length == 1) return 0;
+        // Un thread écrit toujours dans le même tampon ; les threads sont répartis entre les tampons
+        int h = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & 0x7FFFFFFF) % stripes.length;
+    }
+
+    // ==========================================
+    //        AGRÉGATION (CONSOMMATEUR)
+    // ==========================================
+
+    /**
+     * Vide tous les tampons et transmet les usages agrégés au Sink.
+     * Appelé par l'agrégateur, et avant toute lecture des statistiques.
+     */
+    synchronized void flush() {
+        List<Event> batch = new ArrayList<>();
+        for (ArrayBlockingQueue<Event> stripe : stripes) stripe.drainTo(batch);
+        if (batch.isEmpty()) return;
+
+        // LinkedHashMap : les dérivés nouveaux gardent leur ordre d'arrivée
+        Map<AVLTree.Node, Map<String, Map<String, long[]>>> grouped = new LinkedHashMap<>();
+        for (Event event : batch) {
+            grouped.computeIfAbsent(event.node, n -> new LinkedHashMap<>())
+                    .computeIfAbsent(event.scheme, s -> new LinkedHashMap<>())
+                    .computeIfAbsent(event.word, w -> new long[1])[0]++;
+        }
+        for (Map.Entry<AVLTree.Node, Map<String, Map<String, long[]>>> byNode : grouped.entrySet()) {
+            for (Map.Entry<String, Map<String, long[]>> byScheme : byNode.getValue().entrySet()) {
+                for (Map.Entry<String, long[]> byWord : byScheme.getValue().entrySet()) {
+                    sink.apply(byNode.getKey(), byScheme.getKey(), byWord.getKey(), byWord.getValue()[0]);
+                }
+            }
+        }
+        applied.add(batch.size());
+        batches.increment();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Erreur agrégation des usages: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête l'agrégateur après un dernier vidage.
+     */
+    void shutdown() {
+        aggregator.shutdown();
+        flush();
+    }
+
+    // ==========================================
+    //              STATISTIQUES
+    // ==========================================
+
+    long getRecorded() { return recorded.sum(); }
+
+    long getDropped() { return dropped.sum(); }
+
+    long getApplied() { return applied.sum(); }
+
+    long getBatches() { return batches.sum(); }
+
+    OverflowPolicy getPolicy() { return policy; }
+
+    /**
+     * @return Le nombre d'usages en attente dans les tampons.
+     */
+    int getPending() {
+        int pending = 0;
+        for (ArrayBlockingQueue<Event> stripe : stripes) pending += stripe.size();
+        return pending;
+    }
+}
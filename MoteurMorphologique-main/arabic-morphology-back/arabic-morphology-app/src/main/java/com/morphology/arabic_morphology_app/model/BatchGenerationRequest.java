@@ -0,0 +1,40 @@
+package com.morphology.arabic_morphology_app.model;
+
+import java.util.List;
+
+/**
+ * Objet de transfert de données (DTO) pour la génération par lot.
+ * Regroupe les racines à dériver et, optionnellement, les schèmes à appliquer.
+ */
+public class BatchGenerationRequest {
+
+    /**
+     * Les racines trilitères à traiter (ex: كتب, قول).
+     */
+    private List<String> roots;
+
+    /**
+     * Filtre optionnel sur les schèmes (ex: فاعِل). Si absent ou vide, tous les schèmes sont appliqués.
+     */
+    private List<String> schemes;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public List<String> getRoots() {
+        return roots;
+    }
+
+    public void setRoots(List<String> roots) {
+        this.roots = roots;
+    }
+
+    public List<String> getSchemes() {
+        return schemes;
+    }
+
+    public void setSchemes(List<String> schemes) {
+        this.schemes = schemes;
+    }
+}
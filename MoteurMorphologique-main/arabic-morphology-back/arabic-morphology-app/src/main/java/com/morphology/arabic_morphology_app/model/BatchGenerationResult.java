@@ -0,0 +1,61 @@
+package com.morphology.arabic_morphology_app.model;
+
+import java.util.Map;
+
+/**
+ * Ligne de résultat d'une génération par lot (une ligne NDJSON par racine).
+ * Contient soit les dérivés de la racine, soit le message d'erreur rencontré.
+ */
+public class BatchGenerationResult {
+
+    /** La racine traitée. */
+    private String root;
+
+    /** Les dérivés générés (clé: nom du schème, valeur: mot), null en cas d'erreur. */
+    private Map<String, String> derivatives;
+
+    /** Le message d'erreur (racine ou schème inconnu), null en cas de succès. */
+    private String error;
+
+    // ==========================================
+    //              CONSTRUCTEURS
+    // ==========================================
+
+    /**
+     * Constructeur d'un résultat réussi.
+     *
+     * @param root        La racine traitée.
+     * @param derivatives Les dérivés par schème.
+     */
+    public BatchGenerationResult(String root, Map<String, String> derivatives) {
+        this.root = root;
+        this.derivatives = derivatives;
+    }
+
+    /**
+     * Constructeur d'un résultat en erreur.
+     *
+     * @param root  La racine traitée.
+     * @param error Le message d'erreur.
+     */
+    public BatchGenerationResult(String root, String error) {
+        this.root = root;
+        this.error = error;
+    }
+
+    // ==========================================
+    //            GETTERS ET ACCESSEURS
+    // ==========================================
+
+    public String getRoot() {
+        return root;
+    }
+
+    public Map<String, String> getDerivatives() {
+        return derivatives;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
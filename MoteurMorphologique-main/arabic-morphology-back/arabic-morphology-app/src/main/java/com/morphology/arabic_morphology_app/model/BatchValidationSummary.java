@@ -0,0 +1,48 @@
+package com.morphology.arabic_morphology_app.model;
+
+/**
+ * Bilan d'une validation par lot, écrit en dernière ligne du flux NDJSON.
+ * Regroupe les compteurs de résultats et le débit observé.
+ */
+public class BatchValidationSummary {
+
+    /** Nombre total de lignes traitées (y compris les lignes en erreur). */
+    private long total;
+
+    /** Nombre de couples (racine, mot) validés. */
+    private long valid;
+
+    /** Nombre de couples (racine, mot) rejetés. */
+    private long invalid;
+
+    /** Nombre de lignes illisibles ou incomplètes. */
+    private long errors;
+
+    /** Durée totale du traitement en millisecondes. */
+    private long elapsedMs;
+
+    /** Débit moyen en couples par seconde. */
+    private double pairsPerSecond;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getValid() { return valid; }
+    public void setValid(long valid) { this.valid = valid; }
+
+    public long getInvalid() { return invalid; }
+    public void setInvalid(long invalid) { this.invalid = invalid; }
+
+    public long getErrors() { return errors; }
+    public void setErrors(long errors) { this.errors = errors; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public double getPairsPerSecond() { return pairsPerSecond; }
+    public void setPairsPerSecond(double pairsPerSecond) { this.pairsPerSecond = pairsPerSecond; }
+}
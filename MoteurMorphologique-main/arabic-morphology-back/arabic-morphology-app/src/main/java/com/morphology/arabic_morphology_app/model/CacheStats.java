@@ -0,0 +1,53 @@
+package com.morphology.arabic_morphology_app.model;
+
+/**
+ * Compteurs du cache de génération (racine, schème), exposés pour le suivi des performances.
+ */
+public class CacheStats {
+
+    /** Vrai si le cache est actif (il est contourné en mode matérialisé). */
+    private boolean enabled;
+
+    /** Capacité maximale du cache (nombre d'entrées). */
+    private int maxSize;
+
+    /** Nombre d'entrées actuellement présentes. */
+    private int size;
+
+    /** Lectures servies par le cache. */
+    private long hits;
+
+    /** Lectures ayant nécessité un calcul (absent ou périmé). */
+    private long misses;
+
+    /** Entrées évincées par l'ordre LRU. */
+    private long evictions;
+
+    /** Proportion de lectures servies par le cache. */
+    private double hitRate;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+}
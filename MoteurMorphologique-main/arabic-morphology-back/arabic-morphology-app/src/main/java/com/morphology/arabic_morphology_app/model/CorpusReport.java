@@ -0,0 +1,75 @@
+package com.morphology.arabic_morphology_app.model;
+
+import java.util.Map;
+
+/**
+ * Rapport de couverture produit par l'analyse d'un corpus.
+ * Réutilise StatisticsResponse pour les racines rencontrées (avec leurs dérivés observés)
+ * et ajoute les compteurs d'occurrences et les taux de couverture.
+ */
+public class CorpusReport {
+
+    /** Statistiques au format habituel, restreintes aux racines rencontrées dans le corpus. */
+    private StatisticsResponse statistics;
+
+    /** Nombre d'occurrences de chaque racine (clé: racine). */
+    private Map<String, Long> rootHits;
+
+    /** Nombre d'occurrences de chaque schème (clé: nom du schème). */
+    private Map<String, Long> schemeHits;
+
+    /** Nombre total de mots arabes lus. */
+    private long totalTokens;
+
+    /** Nombre de mots reconnus comme dérivé d'au moins un couple (racine, schème). */
+    private long matchedTokens;
+
+    /** Part des mots reconnus (matchedTokens / totalTokens). */
+    private double tokenCoverage;
+
+    /** Part des racines du dictionnaire rencontrées au moins une fois. */
+    private double rootCoverage;
+
+    /** Part des schèmes rencontrés au moins une fois. */
+    private double schemeCoverage;
+
+    /** Taille du fichier analysé en octets. */
+    private long bytes;
+
+    /** Durée de l'analyse en millisecondes. */
+    private long elapsedMs;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public StatisticsResponse getStatistics() { return statistics; }
+    public void setStatistics(StatisticsResponse statistics) { this.statistics = statistics; }
+
+    public Map<String, Long> getRootHits() { return rootHits; }
+    public void setRootHits(Map<String, Long> rootHits) { this.rootHits = rootHits; }
+
+    public Map<String, Long> getSchemeHits() { return schemeHits; }
+    public void setSchemeHits(Map<String, Long> schemeHits) { this.schemeHits = schemeHits; }
+
+    public long getTotalTokens() { return totalTokens; }
+    public void setTotalTokens(long totalTokens) { this.totalTokens = totalTokens; }
+
+    public long getMatchedTokens() { return matchedTokens; }
+    public void setMatchedTokens(long matchedTokens) { this.matchedTokens = matchedTokens; }
+
+    public double getTokenCoverage() { return tokenCoverage; }
+    public void setTokenCoverage(double tokenCoverage) { this.tokenCoverage = tokenCoverage; }
+
+    public double getRootCoverage() { return rootCoverage; }
+    public void setRootCoverage(double rootCoverage) { this.rootCoverage = rootCoverage; }
+
+    public double getSchemeCoverage() { return schemeCoverage; }
+    public void setSchemeCoverage(double schemeCoverage) { this.schemeCoverage = schemeCoverage; }
+
+    public long getBytes() { return bytes; }
+    public void setBytes(long bytes) { this.bytes = bytes; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+}
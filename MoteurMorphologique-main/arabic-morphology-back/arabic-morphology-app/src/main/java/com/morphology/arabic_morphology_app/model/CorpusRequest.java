@@ -0,0 +1,38 @@
+package com.morphology.arabic_morphology_app.model;
+
+/**
+ * Objet de transfert de données (DTO) pour l'analyse d'un corpus local.
+ */
+public class CorpusRequest {
+
+    /**
+     * Chemin du fichier corpus, relatif au répertoire des corpus configuré
+     * (morphology.corpus.base-dir).
+     */
+    private String path;
+
+    /**
+     * Compare les mots sans leurs diacritiques (textes non vocalisés). Activé par défaut.
+     */
+    private boolean stripDiacritics = true;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public boolean isStripDiacritics() {
+        return stripDiacritics;
+    }
+
+    public void setStripDiacritics(boolean stripDiacritics) {
+        this.stripDiacritics = stripDiacritics;
+    }
+}
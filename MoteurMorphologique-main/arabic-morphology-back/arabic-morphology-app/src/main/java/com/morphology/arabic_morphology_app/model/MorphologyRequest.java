@@ -21,7 +21,7 @@ public class MorphologyRequest {
 
     /**
      * Le mot complet à vérifier.
-     * Utilisé pour : validate.
+     * Utilisé pour : validate, analyze.
      */
     private String word;
 
@@ -1,16 +1,24 @@
 package com.morphology.arabic_morphology_app.model;
 
-import java.util.List;
 import java.util.Map;
 
 public class StatisticsResponse {
 
     private int totalRoots;
     private int totalPatterns;
-    private int totalDerivatives;
+    private long totalDerivatives;
+    private long totalValidations;
     private double density;
+    // Usages abandonnés par l'enregistrement différé (politique DROP) : absents des totaux
+    private long droppedUsages;
 
-    // clé = id ou texte de la racine
+    // Répartitions : clé = nom du RootType, ou nom du schème
+    private Map<String, Long> rootsByType;
+    private Map<String, Long> derivativesByType;
+    private Map<String, Long> derivativesByScheme;
+
+    // Détail par racine (clé = texte de la racine) : rempli par les rapports de corpus ;
+    // pour le lexique, il est servi page par page à part (/statistics/roots)
     private Map<String, RootStat> roots;
 
     // getters & setters
@@ -20,12 +28,27 @@ public class StatisticsResponse {
     public int getTotalPatterns() { return totalPatterns; }
     public void setTotalPatterns(int totalPatterns) { this.totalPatterns = totalPatterns; }
 
-    public int getTotalDerivatives() { return totalDerivatives; }
-    public void setTotalDerivatives(int totalDerivatives) { this.totalDerivatives = totalDerivatives; }
+    public long getTotalDerivatives() { return totalDerivatives; }
+    public void setTotalDerivatives(long totalDerivatives) { this.totalDerivatives = totalDerivatives; }
+
+    public long getTotalValidations() { return totalValidations; }
+    public void setTotalValidations(long totalValidations) { this.totalValidations = totalValidations; }
 
     public double getDensity() { return density; }
     public void setDensity(double density) { this.density = density; }
 
+    public long getDroppedUsages() { return droppedUsages; }
+    public void setDroppedUsages(long droppedUsages) { this.droppedUsages = droppedUsages; }
+
+    public Map<String, Long> getRootsByType() { return rootsByType; }
+    public void setRootsByType(Map<String, Long> rootsByType) { this.rootsByType = rootsByType; }
+
+    public Map<String, Long> getDerivativesByType() { return derivativesByType; }
+    public void setDerivativesByType(Map<String, Long> derivativesByType) { this.derivativesByType = derivativesByType; }
+
+    public Map<String, Long> getDerivativesByScheme() { return derivativesByScheme; }
+    public void setDerivativesByScheme(Map<String, Long> derivativesByScheme) { this.derivativesByScheme = derivativesByScheme; }
+
     public Map<String, RootStat> getRoots() { return roots; }
     public void setRoots(Map<String, RootStat> roots) { this.roots = roots; }
 }
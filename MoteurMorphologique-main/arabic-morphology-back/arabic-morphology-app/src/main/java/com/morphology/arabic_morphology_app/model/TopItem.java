@@ -0,0 +1,30 @@
+package com.morphology.arabic_morphology_app.model;
+
+/**
+ * Élément d'un classement approché (mot dérivé ou racine) et sa fréquence estimée.
+ */
+public class TopItem {
+
+    /** Le mot dérivé ou la racine. */
+    private String item;
+
+    /** Fréquence estimée (majorant de la fréquence réelle). */
+    private long count;
+
+    /** Erreur maximale de l'estimation : la fréquence réelle est au moins count - error. */
+    private long error;
+
+    public TopItem(String item, long count, long error) {
+        this.item = item;
+        this.count = count;
+        this.error = error;
+    }
+
+    // ==========================================
+    //            GETTERS
+    // ==========================================
+
+    public String getItem() { return item; }
+    public long getCount() { return count; }
+    public long getError() { return error; }
+}
@@ -0,0 +1,31 @@
+package com.morphology.arabic_morphology_app.model;
+
+import java.util.List;
+
+/**
+ * Mots dérivés et racines les plus utilisés (générations et validations), estimés en mémoire bornée.
+ */
+public class TopStatistics {
+
+    /** Nombre de compteurs par segment de suivi (0 : suivi désactivé). */
+    private int capacity;
+
+    /** Mots dérivés les plus fréquents, par fréquence estimée décroissante. */
+    private List<TopItem> words;
+
+    /** Racines les plus fréquentes, par fréquence estimée décroissante. */
+    private List<TopItem> roots;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public List<TopItem> getWords() { return words; }
+    public void setWords(List<TopItem> words) { this.words = words; }
+
+    public List<TopItem> getRoots() { return roots; }
+    public void setRoots(List<TopItem> roots) { this.roots = roots; }
+}
@@ -0,0 +1,53 @@
+package com.morphology.arabic_morphology_app.model;
+
+/**
+ * Compteurs de l'enregistrement différé des usages de dérivés, exposés pour le suivi.
+ */
+public class UsageStats {
+
+    /** Vrai si les usages sont agrégés en arrière-plan (sinon mis à jour dans la requête). */
+    private boolean writeBehind;
+
+    /** Politique appliquée lorsqu'un tampon est plein (DROP ou BLOCK). */
+    private String overflowPolicy;
+
+    /** Usages déposés dans les tampons. */
+    private long recorded;
+
+    /** Usages abandonnés faute de place. */
+    private long dropped;
+
+    /** Usages appliqués aux statistiques des racines. */
+    private long applied;
+
+    /** Nombre de lots appliqués par l'agrégateur. */
+    private long batches;
+
+    /** Usages en attente dans les tampons. */
+    private int pending;
+
+    // ==========================================
+    //            GETTERS ET SETTERS
+    // ==========================================
+
+    public boolean isWriteBehind() { return writeBehind; }
+    public void setWriteBehind(boolean writeBehind) { this.writeBehind = writeBehind; }
+
+    public String getOverflowPolicy() { return overflowPolicy; }
+    public void setOverflowPolicy(String overflowPolicy) { this.overflowPolicy = overflowPolicy; }
+
+    public long getRecorded() { return recorded; }
+    public void setRecorded(long recorded) { this.recorded = recorded; }
+
+    public long getDropped() { return dropped; }
+    public void setDropped(long dropped) { this.dropped = dropped; }
+
+    public long getApplied() { return applied; }
+    public void setApplied(long applied) { this.applied = applied; }
+
+    public long getBatches() { return batches; }
+    public void setBatches(long batches) { this.batches = batches; }
+
+    public int getPending() { return pending; }
+    public void setPending(int pending) { this.pending = pending; }
+}
@@ -1,5 +1,8 @@
 package com.morphology.arabic_morphology_app.model;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Représente le résultat d'une opération de validation morphologique.
  * Cet objet encapsule le verdict de l'analyse (valide ou non) ainsi que les
@@ -16,6 +19,9 @@ public class ValidationResult {
     /** Le nom du schème morphologique identifié (ex: فاعل). */
     private String scheme;
 
+    /** L'ensemble des schèmes qui produisent le mot pour cette racine (le premier est {@link #scheme}). */
+    private List<String> schemes;
+
     // ==========================================
     //              CONSTRUCTEUR
     // ==========================================
@@ -31,6 +37,20 @@ public class ValidationResult {
         this.valid = valid;
         this.root = root;
         this.scheme = scheme;
+        this.schemes = scheme == null ? Collections.emptyList() : List.of(scheme);
+    }
+
+    /**
+     * Constructeur à partir des schèmes identifiés : le mot est valide si au moins un schème le produit.
+     *
+     * @param root    La racine trilitère identifiée.
+     * @param schemes Les schèmes identifiés, dans l'ordre de la table des schèmes.
+     */
+    public ValidationResult(String root, List<String> schemes) {
+        this.valid = !schemes.isEmpty();
+        this.root = root;
+        this.scheme = schemes.isEmpty() ? null : schemes.get(0);
+        this.schemes = schemes;
     }
 
     // ==========================================
@@ -57,4 +77,11 @@ public class ValidationResult {
     public String getScheme() {
         return scheme;
     }
+
+    /**
+     * @return Tous les schèmes qui produisent le mot pour cette racine.
+     */
+    public List<String> getSchemes() {
+        return schemes;
+    }
 }
\ No newline at end of file
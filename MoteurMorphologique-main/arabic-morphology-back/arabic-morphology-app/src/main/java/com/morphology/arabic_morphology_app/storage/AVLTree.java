@@ -1,25 +1,38 @@
 package com.morphology.arabic_morphology_app.storage;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implémentation d'un arbre binaire de recherche auto-équilibré (Arbre AVL).
  * Utilisé pour stocker les racines arabes de manière optimisée avec une complexité
  * de recherche, d'insertion et de suppression en O(log n).
  */
-public class AVLTree {
+public class AVLTree implements RootStore {
 
     /**
      * Représente un nœud à l'intérieur de l'arbre AVL.
      */
     public static class Node {
         public String root;
+        /** Identifiant stable de la racine (ordre d'insertion), utilisé pour indexer les tableaux annexes */
+        public int id;
         public int height;
+        /** Nombre de nœuds du sous-arbre enraciné ici (statistiques d'ordre : rank, select) */
+        public int size;
         public Node left, right;
 
-        /** Liste des mots dérivés validés associés à cette racine */
-        public List<Derivative> validatedDerivatives;
+        /** Mots dérivés validés associés à cette racine, indexés par mot (mise à jour en O(1)) */
+        private final ConcurrentHashMap<String, Derivative> derivativeIndex = new ConcurrentHashMap<>();
+
+        /** Mêmes dérivés dans leur ordre de première validation */
+        private final Queue<Derivative> derivativeOrder = new ConcurrentLinkedQueue<>();
 
         /**
          * Constructeur de nœud.
@@ -28,7 +41,63 @@ public class AVLTree {
         Node(String d) {
             this.root = d;
             this.height = 1;
-            this.validatedDerivatives = new ArrayList<>();
+            this.size = 1;
+        }
+
+        /**
+         * Enregistre une occurrence d'un mot dérivé (création au premier passage).
+         * Sans verrou global : plusieurs threads peuvent compter simultanément sans perte.
+         * @param word Le mot dérivé généré ou validé.
+         * @return Vrai si le mot est nouveau pour cette racine.
+         */
+        public boolean recordDerivative(String word) {
+            return recordDerivative(word, null, 1);
+        }
+
+        /**
+         * Enregistre plusieurs occurrences d'un mot dérivé en une seule mise à jour (application par lots).
+         * @param word   Le mot dérivé.
+         * @param scheme Le schème qui l'a produit (retenu à la première validation seulement).
+         * @param count  Le nombre d'occurrences à ajouter.
+         * @return Vrai si le mot est nouveau pour cette racine (un seul thread l'obtient).
+         */
+        public boolean recordDerivative(String word, String scheme, long count) {
+            Derivative d = derivativeIndex.get(word);
+            boolean created = false;
+            if (d == null) {
+                Derivative fresh = new Derivative(word, scheme);
+                d = derivativeIndex.putIfAbsent(word, fresh);
+                if (d == null) {
+                    derivativeOrder.add(fresh);
+                    d = fresh;
+                    created = true;
+                }
+            }
+            d.add(count);
+            return created;
+        }
+
+        /**
+         * @return Les mots dérivés validés, dans l'ordre de leur première validation.
+         */
+        public Collection<Derivative> getValidatedDerivatives() {
+            return Collections.unmodifiableCollection(derivativeOrder);
+        }
+
+        /**
+         * Retire les dérivés attribués à un schème (schème supprimé).
+         * @param scheme Le nom du schème.
+         * @return Le nombre de dérivés retirés.
+         */
+        public int removeDerivatives(String scheme) {
+            int removed = 0;
+            for (Derivative d : derivativeOrder) {
+                if (scheme.equals(d.scheme) && derivativeIndex.remove(d.word, d)) {
+                    derivativeOrder.remove(d);
+                    removed++;
+                }
+            }
+            return removed;
         }
     }
 
@@ -36,20 +105,41 @@ public class AVLTree {
      * Représente un mot dérivé généré et validé.
      */
     public static class Derivative {
-        public String word;
-        public int frequency;
+        public final String word;
+        /** Schème qui a produit le mot à sa première validation (null si inconnu) */
+        public final String scheme;
+        private final LongAdder frequency = new LongAdder();
 
         /**
-         * Constructeur de dérivé.
+         * Constructeur de dérivé (fréquence nulle jusqu'au premier ajout).
          * @param word Le mot généré.
          */
         public Derivative(String word) {
+            this(word, null);
+        }
+
+        /**
+         * @param word   Le mot généré.
+         * @param scheme Le schème qui l'a produit.
+         */
+        public Derivative(String word, String scheme) {
             this.word = word;
-            this.frequency = 1;
+            this.scheme = scheme;
+        }
+
+        /** Ajoute des occurrences à la fréquence (compteur réparti, sans contention entre threads). */
+        public void add(long count) {
+            frequency.add(count);
+        }
+
+        /** @return Le nombre de validations du mot. */
+        public long getFrequency() {
+            return frequency.sum();
         }
     }
 
     private Node rootNode;
+    private int nextId = 0;
 
     // ==========================================
     //            API PUBLIQUE
@@ -63,11 +153,48 @@ public class AVLTree {
         rootNode = insert(rootNode, root);
     }
 
+    /**
+     * Chargement en bloc : construit directement un arbre parfaitement équilibré en O(n + m),
+     * sans descente ni rotation par racine. Les nœuds déjà présents sont conservés (identifiant
+     * et dérivés compris) et fusionnés avec les nouvelles racines.
+     * @param sortedRoots Les racines à ajouter, triées par ordre croissant et sans doublon.
+     * @throws IllegalArgumentException si le tableau n'est pas strictement croissant.
+     */
+    @Override
+    public void bulkLoad(String[] sortedRoots) {
+        for (int i = 1; i < sortedRoots.length; i++) {
+            if (sortedRoots[i - 1].compareTo(sortedRoots[i]) >= 0) {
+                throw new IllegalArgumentException("Racines non triées ou dupliquées : "
+                        + sortedRoots[i - 1] + ", " + sortedRoots[i]);
+            }
+        }
+
+        // Fusion des nœuds existants (parcours infixe, déjà triés) avec les nouvelles racines
+        List<Node> existing = getAllNodes();
+        Node[] merged = new Node[existing.size() + sortedRoots.length];
+        int n = 0, i = 0, j = 0;
+        while (i < existing.size() || j < sortedRoots.length) {
+            int cmp = i == existing.size() ? 1
+                    : j == sortedRoots.length ? -1
+                    : existing.get(i).root.compareTo(sortedRoots[j]);
+            if (cmp <= 0) {
+                merged[n++] = existing.get(i++);
+                if (cmp == 0) j++; // Doublons non autorisés
+            } else {
+                Node created = new Node(sortedRoots[j++]);
+                created.id = nextId++;
+                merged[n++] = created;
+            }
+        }
+        rootNode = build(merged, 0, n - 1);
+    }
+
     /**
      * Vérifie si une racine existe dans l'arbre.
      * @param root La racine à rechercher.
      * @return Vrai si la racine est présente.
      */
+    @Override
     public boolean contains(String root) {
         return find(rootNode, root) != null;
     }
@@ -77,6 +204,7 @@ public class AVLTree {
      * @param root La racine cible.
      * @return Le nœud complet ou null s'il n'est pas trouvé.
      */
+    @Override
     public Node find(String root) {
         return find(rootNode, root);
     }
@@ -89,12 +217,79 @@ public class AVLTree {
         return rootNode;
     }
 
+    @Override
     public List<Node> getAllNodes() {
         List<Node> nodes = new ArrayList<>();
         inorderTraversal(rootNode, nodes);   //
         return nodes;
     }
 
+    @Override
+    public List<String> getAllRoots() {
+        List<String> roots = new ArrayList<>();
+        for (Node node : getAllNodes()) roots.add(node.root);
+        return roots;
+    }
+
+    @Override
+    public int size() {
+        return nextId; // Un identifiant par nœud créé (pas de suppression)
+    }
+
+    @Override
+    public int rank(String root) {
+        int rank = 0;
+        Node node = rootNode;
+        while (node != null) {
+            int cmp = root.compareTo(node.root);
+            if (cmp == 0) return rank + size(node.left);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public String select(int k) {
+        Node node = rootNode;
+        if (k < 0 || k >= size(node)) return null;
+        while (true) {
+            int left = size(node.left);
+            if (k == left) return node.root;
+            if (k < left) {
+                node = node.left;
+            } else {
+                k -= left + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Descente guidée par les tailles : O(log n + limit), sans parcourir les nœuds écartés.
+     */
+    @Override
+    public List<String> getRoots(int offset, int limit) {
+        List<String> roots = new ArrayList<>(Math.max(0, Math.min(limit, size(rootNode) - offset)));
+        if (limit > 0) collectPage(rootNode, Math.max(0, offset), limit, roots);
+        return roots;
+    }
+
+    /**
+     * Ajoute à roots les racines du sous-arbre à partir de la position offset (relative au sous-arbre).
+     */
+    private void collectPage(Node node, int offset, int limit, List<String> roots) {
+        if (node == null || roots.size() >= limit) return;
+        int left = size(node.left);
+        if (offset < left) collectPage(node.left, offset, limit, roots);
+        if (offset <= left && roots.size() < limit) roots.add(node.root);
+        collectPage(node.right, Math.max(0, offset - left - 1), limit, roots);
+    }
+
     private void inorderTraversal(Node current, List<Node> nodes) {
         if (current == null) return;
 
@@ -124,7 +319,11 @@ public class AVLTree {
      */
     private Node insert(Node node, String key) {
         // 1. Insertion standard BST
-        if (node == null) return new Node(key);
+        if (node == null) {
+            Node created = new Node(key);
+            created.id = nextId++;
+            return created;
+        }
 
         if (key.compareTo(node.root) < 0) {
             node.left = insert(node.left, key);
@@ -134,8 +333,9 @@ public class AVLTree {
             return node; // Doublons non autorisés
         }
 
-        // 2. Mise à jour de la hauteur du nœud ancêtre
+        // 2. Mise à jour de la hauteur (et de la taille) du nœud ancêtre
         node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
 
         // 3. Calcul du facteur d'équilibre
         int balance = getBalance(node);
@@ -167,6 +367,20 @@ public class AVLTree {
         return node;
     }
 
+    /**
+     * Construit récursivement un sous-arbre équilibré : le médian devient la racine du sous-arbre.
+     */
+    private Node build(Node[] nodes, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        Node node = nodes[mid];
+        node.left = build(nodes, lo, mid - 1);
+        node.right = build(nodes, mid + 1, hi);
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
     // ==========================================
     //        UTILITAIRES ET ROTATIONS AVL
     // ==========================================
@@ -175,6 +389,10 @@ public class AVLTree {
         return n == null ? 0 : n.height;
     }
 
+    private int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
     private int getBalance(Node n) {
         return n == null ? 0 : height(n.left) - height(n.right);
     }
@@ -190,9 +408,11 @@ public class AVLTree {
         x.right = y;
         y.left = T2;
 
-        // Mise à jour des hauteurs
+        // Mise à jour des hauteurs et des tailles
         y.height = Math.max(height(y.left), height(y.right)) + 1;
         x.height = Math.max(height(x.left), height(x.right)) + 1;
+        y.size = size(y.left) + size(y.right) + 1;
+        x.size = size(x.left) + size(x.right) + 1;
 
         return x;
     }
@@ -208,9 +428,11 @@ public class AVLTree {
         y.left = x;
         x.right = T2;
 
-        // Mise à jour des hauteurs
+        // Mise à jour des hauteurs et des tailles
         x.height = Math.max(height(x.left), height(x.right)) + 1;
         y.height = Math.max(height(y.left), height(y.right)) + 1;
+        x.size = size(x.left) + size(x.right) + 1;
+        y.size = size(y.left) + size(y.right) + 1;
 
         return y;
     }
@@ -0,0 +1,206 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des modifications du lexique (schèmes et groupes de transformations), en ajout seul.
+ * Chaque enregistrement est une ligne « crc TAB opération TAB champs... » forcée sur disque
+ * avant d'être appliquée en mémoire. À la relecture, une ligne incomplète ou dont le CRC
+ * ne correspond pas (écriture interrompue) marque la fin du journal valide.
+ * Toutes les opérations sont idempotentes : rejouer un journal déjà compacté est sans effet.
+ */
+public class ChangeJournal implements AutoCloseable {
+
+    /** Opérations journalisées. */
+    public enum Op { SCHEME_PUT, SCHEME_DELETE, GROUP_PUT, GROUP_DELETE }
+
+    /** Un enregistrement relu depuis le journal. */
+    public static class Entry {
+        public final Op op;
+        public final String[] fields;
+
+        Entry(Op op, String[] fields) {
+            this.op = op;
+            this.fields = fields;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private int records;
+
+    private ChangeJournal(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Ouvre (ou crée) le journal.
+     *
+     * @param file Le chemin du journal.
+     * @return Le journal ouvert, positionné en fin de fichier.
+     */
+    public static ChangeJournal open(Path file) {
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new ChangeJournal(file, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur ouverture journal " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ==========================================
+    //              ÉCRITURE
+    // ==========================================
+
+    /**
+     * Ajoute un enregistrement et le force sur disque.
+     *
+     * @param op     L'opération.
+     * @param fields Ses champs (null est enregistré comme chaîne vide).
+     */
+    public synchronized void append(Op op, String... fields) {
+        StringBuilder body = new StringBuilder(op.name());
+        for (String field : fields) body.append('\t').append(escape(field == null ? "" : field));
+        String line = crc(body.toString()) + "\t" + body + "\n";
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            long position = channel.size();
+            while (bytes.hasRemaining()) position += channel.write(bytes, position);
+            channel.force(false);
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur écriture journal " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Vide le journal (après compaction réussie dans les fichiers texte).
+     */
+    public synchronized void truncate() {
+        try {
+            channel.truncate(0);
+            channel.force(true);
+            records = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur troncature journal " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return Le nombre d'enregistrements depuis la dernière compaction.
+     */
+    public synchronized int size() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erreur fermeture journal " + file + ": " + e.getMessage());
+        }
+    }
+
+    // ==========================================
+    //              RELECTURE
+    // ==========================================
+
+    /**
+     * Relit les enregistrements valides, dans l'ordre, et tronque une éventuelle fin corrompue.
+     *
+     * @return Les enregistrements à rejouer.
+     */
+    public synchronized List<Entry> replay() {
+        List<Entry> entries = new ArrayList<>();
+        try {
+            byte[] content = new byte[(int) channel.size()];
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, position);
+                if (n < 0) break;
+                position += n;
+            }
+
+            int start = 0;
+            int validEnd = 0;
+            for (int i = 0; i < content.length; i++) {
+                if (content[i] != '\n') continue;
+                Entry entry = parse(new String(content, start, i - start, StandardCharsets.UTF_8));
+                if (entry == null) break;
+                entries.add(entry);
+                start = i + 1;
+                validEnd = start;
+            }
+            if (validEnd < content.length) {
+                System.err.println("Journal tronqué après " + entries.size() + " enregistrements valides : " + file);
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            records = entries.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur lecture journal " + file + ": " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    private static Entry parse(String line) {
+        int tab = line.indexOf('\t');
+        if (tab < 0) return null;
+        String body = line.substring(tab + 1);
+        if (!line.substring(0, tab).equals(crc(body))) return null;
+
+        String[] parts = body.split("\t", -1);
+        Op op;
+        try {
+            op = Op.valueOf(parts[0]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String[] fields = new String[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) fields[i - 1] = unescape(parts[i]);
+        return new Entry(op, fields);
+    }
+
+    // ==========================================
+    //              UTILITAIRES
+    // ==========================================
+
+    private static String crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String unescape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char next = s.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,404 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Variante concurrente de ManualHashTable (même hachage, même chaînage, mêmes entrées),
+ * utilisable pendant que des requêtes lisent la table.
+ *
+ * <ul>
+ *   <li>Lectures sans verrou : une chaîne n'est jamais modifiée après publication.</li>
+ *   <li>Écritures par CAS sur la tête du compartiment : une mise à jour ou une suppression
+ *       recopie le début de la chaîne jusqu'à l'entrée concernée, puis publie la nouvelle tête.</li>
+ *   <li>Redimensionnement incrémental : la nouvelle table est remplie compartiment par
+ *       compartiment, quelques-uns à chaque écriture. Un compartiment migré est remplacé par
+ *       une entrée de renvoi (FORWARD) ; tant qu'il ne l'est pas, ses clés restent dans l'ancienne table.</li>
+ *   <li>Parcours sans allocation : une vue tableau immuable des entrées est mise en cache
+ *       et reconstruite seulement après une modification (entries).</li>
+ * </ul>
+ */
+public class ConcurrentManualHashTable {
+
+    private static final double LOAD_FACTOR = 0.75;
+    /** Nombre de compartiments migrés par écriture pendant un redimensionnement. */
+    private static final int MIGRATION_STEP = 4;
+
+    /** Marque un compartiment de l'ancienne table déjà recopié dans la nouvelle. */
+    private static final ManualHashTable.Entry FORWARD = new ManualHashTable.Entry(null, null);
+
+    /**
+     * Tables en vigueur : la table courante et, pendant un redimensionnement, l'ancienne.
+     */
+    private static final class Tables {
+        final AtomicReferenceArray<ManualHashTable.Entry> current;
+        final AtomicReferenceArray<ManualHashTable.Entry> old; // null hors redimensionnement
+
+        Tables(AtomicReferenceArray<ManualHashTable.Entry> current, AtomicReferenceArray<ManualHashTable.Entry> old) {
+            this.current = current;
+            this.old = old;
+        }
+    }
+
+    /**
+     * Vue tableau des entrées, valable pour une version de la table.
+     */
+    private static final class Snapshot {
+        final long version;
+        final String[][] entries;
+        final List<String[]> list;
+
+        Snapshot(long version, String[][] entries) {
+            this.version = version;
+            this.entries = entries;
+            this.list = Collections.unmodifiableList(Arrays.asList(entries));
+        }
+    }
+
+    private volatile Tables tables;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Version incrémentée après chaque modification publiée ; invalide la vue en cache
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0, new String[0][]);
+
+    // Un seul thread migre à la fois ; les autres écrivains n'attendent pas (tryLock)
+    private final ReentrantLock migrationLock = new ReentrantLock();
+    private int migrated; // prochain compartiment de l'ancienne table à migrer (sous migrationLock)
+
+    /**
+     * Initialise la table avec une capacité initiale.
+     */
+    public ConcurrentManualHashTable() {
+        this(16);
+    }
+
+    /**
+     * Initialise la table avec une capacité initiale personnalisée.
+     * @param initialCapacity La capacité initiale.
+     */
+    public ConcurrentManualHashTable(int initialCapacity) {
+        this.tables = new Tables(new AtomicReferenceArray<>(Math.max(1, initialCapacity)), null);
+    }
+
+    // ==========================================
+    //           LOGIQUE DE HACHAGE
+    // ==========================================
+
+    /**
+     * Même fonction que ManualHashTable : en doublant la capacité, une clé du compartiment i
+     * va dans le compartiment i ou i + ancienne capacité.
+     */
+    private static int hash(String key, int capacity) {
+        return Math.abs(key.hashCode() % capacity);
+    }
+
+    /**
+     * Table contenant le compartiment d'une clé : l'ancienne tant que ce compartiment n'est pas migré.
+     */
+    private static AtomicReferenceArray<ManualHashTable.Entry> tableFor(Tables t, String key) {
+        if (t.old != null && t.old.get(hash(key, t.old.length())) != FORWARD) return t.old;
+        return t.current;
+    }
+
+    // ==========================================
+    //            OPÉRATIONS DE BASE
+    // ==========================================
+
+    /**
+     * Récupère la règle associée à un schème, sans verrou.
+     *
+     * @param key Le nom du schème à rechercher.
+     * @return La règle correspondante ou null si absente.
+     */
+    public String get(String key) {
+        while (true) {
+            Tables t = tables;
+            AtomicReferenceArray<ManualHashTable.Entry> table = tableFor(t, key);
+            ManualHashTable.Entry current = table.get(hash(key, table.length()));
+            if (current == FORWARD) continue; // Redimensionnement suivant commencé : relire l'état
+            while (current != null) {
+                if (current.key.equals(key)) return current.value;
+                current = current.next;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Ajoute ou met à jour une règle dans la table.
+     * Si la clé existe déjà, sa valeur est remplacée (l'entrée garde sa place dans la chaîne).
+     *
+     * @param key Le nom du schème.
+     * @param value La règle de construction.
+     */
+    public void put(String key, String value) {
+        if (key == null) return;
+        while (true) {
+            Tables t = tables;
+            AtomicReferenceArray<ManualHashTable.Entry> table = tableFor(t, key);
+            int h = hash(key, table.length());
+            ManualHashTable.Entry head = table.get(h);
+            if (head == FORWARD) continue;
+
+            ManualHashTable.Entry existing = find(head, key);
+            ManualHashTable.Entry newHead;
+            if (existing != null) {
+                ManualHashTable.Entry updated = new ManualHashTable.Entry(key, value);
+                updated.next = existing.next;
+                newHead = copyPrefix(head, existing, updated);
+            } else {
+                // Gestion de la collision : ajout en tête de liste
+                newHead = new ManualHashTable.Entry(key, value);
+                newHead.next = head;
+            }
+            if (!table.compareAndSet(h, head, newHead)) continue; // Écriture concurrente : recommencer
+            version.incrementAndGet();
+
+            if (existing == null) afterInsert(size.incrementAndGet());
+            else helpMigrate();
+            return;
+        }
+    }
+
+    /**
+     * Supprime l'entrée correspondant à la clé donnée.
+     * @param key la clé à supprimer
+     * @return la valeur qui était associée (ou null si absent)
+     */
+    public String remove(String key) {
+        if (key == null) return null;
+        while (true) {
+            Tables t = tables;
+            AtomicReferenceArray<ManualHashTable.Entry> table = tableFor(t, key);
+            int h = hash(key, table.length());
+            ManualHashTable.Entry head = table.get(h);
+            if (head == FORWARD) continue;
+
+            ManualHashTable.Entry existing = find(head, key);
+            if (existing == null) return null; // non trouvé
+            if (!table.compareAndSet(h, head, copyPrefix(head, existing, existing.next))) continue;
+            version.incrementAndGet();
+
+            size.decrementAndGet();
+            helpMigrate();
+            return existing.value;
+        }
+    }
+
+    private static ManualHashTable.Entry find(ManualHashTable.Entry head, String key) {
+        for (ManualHashTable.Entry e = head; e != null; e = e.next) {
+            if (e.key.equals(key)) return e;
+        }
+        return null;
+    }
+
+    /**
+     * Recopie les entrées précédant target et les raccroche à tail (qui prend la place de target).
+     */
+    private static ManualHashTable.Entry copyPrefix(ManualHashTable.Entry head, ManualHashTable.Entry target,
+                                                    ManualHashTable.Entry tail) {
+        if (head == target) return tail;
+        ManualHashTable.Entry copy = new ManualHashTable.Entry(head.key, head.value);
+        copy.next = copyPrefix(head.next, target, tail);
+        return copy;
+    }
+
+    // ==========================================
+    //       REDIMENSIONNEMENT INCRÉMENTAL
+    // ==========================================
+
+    private void afterInsert(int newSize) {
+        Tables t = tables;
+        if (t.old == null && newSize > t.current.length() * LOAD_FACTOR) {
+            migrationLock.lock();
+            try {
+                if (tables == t) {
+                    tables = new Tables(new AtomicReferenceArray<>(t.current.length() * 2), t.current);
+                    migrated = 0;
+                    version.incrementAndGet(); // La vue change de capacité
+                }
+            } finally {
+                migrationLock.unlock();
+            }
+        }
+        helpMigrate();
+    }
+
+    /**
+     * Migre quelques compartiments de l'ancienne table, si aucun autre thread ne s'en charge.
+     */
+    private void helpMigrate() {
+        if (tables.old == null || !migrationLock.tryLock()) return;
+        try {
+            Tables t = tables;
+            if (t.old == null) return;
+            int oldCapacity = t.old.length();
+            for (int step = 0; step < MIGRATION_STEP && migrated < oldCapacity; step++) {
+                transfer(t, migrated++);
+                version.incrementAndGet(); // Ordre des entrées du compartiment inversé par la migration
+            }
+            if (migrated == oldCapacity) {
+                tables = new Tables(t.current, null);
+                // Insertions nombreuses pendant la migration : redimensionner à nouveau
+                if (size.get() > t.current.length() * LOAD_FACTOR) afterInsert(size.get());
+            }
+        } finally {
+            migrationLock.unlock();
+        }
+    }
+
+    /**
+     * Recopie un compartiment de l'ancienne table dans les deux compartiments correspondants
+     * de la nouvelle (ordre identique à ManualHashTable.resize), puis le marque FORWARD.
+     */
+    private static void transfer(Tables t, int i) {
+        int newCapacity = t.current.length();
+        while (true) {
+            ManualHashTable.Entry head = t.old.get(i);
+            ManualHashTable.Entry low = null, high = null;
+            for (ManualHashTable.Entry e = head; e != null; e = e.next) {
+                ManualHashTable.Entry moved = new ManualHashTable.Entry(e.key, e.value);
+                if (hash(e.key, newCapacity) == i) {
+                    moved.next = low;
+                    low = moved;
+                } else {
+                    moved.next = high;
+                    high = moved;
+                }
+            }
+            // Aucun écrivain n'accède à ces compartiments avant le renvoi
+            t.current.set(i, low);
+            t.current.set(i + t.old.length(), high);
+            if (t.old.compareAndSet(i, head, FORWARD)) return;
+        }
+    }
+
+    // ==========================================
+    //       RÉCUPÉRATION ET ÉTAT INTERNE
+    // ==========================================
+
+    /**
+     * Retourne l'intégralité des entrées de la table sous forme de liste (copie modifiable).
+     *
+     * @return Liste de tableaux de chaînes [clé, valeur].
+     */
+    public List<String[]> getAll() {
+        List<String[]> list = new ArrayList<>();
+        for (String[] entry : current().entries) list.add(new String[]{entry[0], entry[1]});
+        return list;
+    }
+
+    /**
+     * Vue immuable des entrées [clé, valeur], dans l'ordre des compartiments.
+     * Sans modification de la table depuis le dernier appel, aucune allocation :
+     * la même vue est renvoyée. Les tableaux [clé, valeur] ne doivent pas être modifiés.
+     *
+     * @return La vue en cache.
+     */
+    public List<String[]> entries() {
+        return current().list;
+    }
+
+    /**
+     * Vue de la version courante, reconstruite si une modification a eu lieu depuis.
+     * La version est lue avant le parcours : une vue ne peut donc être plus ancienne que sa version.
+     */
+    private Snapshot current() {
+        long v = version.get();
+        Snapshot cached = snapshot;
+        if (cached.version == v) return cached;
+
+        List<String[]> list = new ArrayList<>(size());
+        for (ManualHashTable.Entry entry : getInternalTable()) {
+            for (ManualHashTable.Entry curr = entry; curr != null; curr = curr.next) {
+                list.add(new String[]{curr.key, curr.value});
+            }
+        }
+        Snapshot rebuilt = new Snapshot(v, list.toArray(new String[0][]));
+        if (version.get() == v) snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Vue des compartiments de la table courante, pour la visualisation des collisions.
+     * Pendant un redimensionnement, les compartiments non encore migrés sont reconstitués
+     * à partir de l'ancienne table. Les entrées ne doivent pas être modifiées.
+     *
+     * @return Un tableau d'entrées (instantané).
+     */
+    public ManualHashTable.Entry[] getInternalTable() {
+        while (true) {
+            Tables t = tables;
+            int capacity = t.current.length();
+            ManualHashTable.Entry[] view = new ManualHashTable.Entry[capacity];
+            boolean stale = false;
+            for (int j = 0; j < capacity && !stale; j++) {
+                ManualHashTable.Entry head = t.old == null ? FORWARD : t.old.get(j % t.old.length());
+                if (head == FORWARD) {
+                    head = t.current.get(j);
+                    stale = head == FORWARD;
+                    view[j] = head;
+                } else {
+                    view[j] = select(head, j, capacity);
+                }
+            }
+            if (!stale) return view;
+        }
+    }
+
+    /**
+     * Copie des entrées d'une chaîne de l'ancienne table destinées au compartiment j.
+     */
+    private static ManualHashTable.Entry select(ManualHashTable.Entry head, int j, int capacity) {
+        if (head == null) return null;
+        if (hash(head.key, capacity) != j) return select(head.next, j, capacity);
+        ManualHashTable.Entry copy = new ManualHashTable.Entry(head.key, head.value);
+        copy.next = select(head.next, j, capacity);
+        return copy;
+    }
+
+    /**
+     * Retourne le nombre d'entrées dans la table.
+     * @return Le nombre d'entrées.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Retourne la capacité actuelle de la table.
+     * @return La capacité.
+     */
+    public int capacity() {
+        return tables.current.length();
+    }
+
+    /**
+     * Calcule et retourne le facteur de charge actuel.
+     * @return Le facteur de charge.
+     */
+    public double getLoadFactor() {
+        return (double) size() / capacity();
+    }
+
+    /**
+     * Retourne la longueur de la chaîne la plus longue (pour débogage des collisions).
+     * @return La longueur maximale d'une chaîne.
+     */
+    public int getLongestChain() {
+        int max = 0;
+        for (ManualHashTable.Entry e : getInternalTable()) {
+            int len = 0;
+            for (ManualHashTable.Entry current = e; current != null; current = current.next) len++;
+            max = Math.max(max, len);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,248 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU borné des dérivés calculés, indexé par couple (racine, schème).
+ * Le cache est découpé en segments indépendants (chacun une LinkedHashMap en ordre d'accès)
+ * pour limiter la contention entre threads.
+ *
+ * L'invalidation est versionnée : chaque couple (type de racine, schème) porte un numéro de version
+ * et chaque entrée retient la version sous laquelle elle a été calculée. Modifier un groupe
+ * (ex: ajwaf_فاعِل) incrémente la seule version concernée, rendant périmées ses entrées sans
+ * parcourir le cache ; elles sont retirées à la lecture suivante ou par l'ordre LRU.
+ * Les cellules d'exception (racine, schème) et le vidage complet ont leur propre version :
+ * l'estampille d'une entrée est la somme de ces versions, qui ne font que croître.
+ */
+public class DerivativeCache {
+
+    private static final int SEGMENTS = 16;
+
+    /** Valeur mise en cache : le mot, le type de sa racine et l'estampille sous laquelle il a été calculé. */
+    private static final class Entry {
+        final String word;
+        final RootType type;
+        final long stamp;
+
+        Entry(String word, RootType type, long stamp) {
+            this.word = word;
+            this.type = type;
+            this.stamp = stamp;
+        }
+    }
+
+    /** Segment LRU : évince l'entrée la moins récemment lue au-delà de sa capacité. */
+    private final class Segment extends LinkedHashMap<Long, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+
+    private final int maxSize;
+    private final Segment[] segments;
+
+    // Versions par [RootType.ordinal()], chaque tableau indexé par identifiant de schème
+    private volatile AtomicIntegerArray[] versions;
+    // Versions des seules cellules d'exception modifiées (absente : 0)
+    private final ConcurrentHashMap<Long, Integer> cellVersions = new ConcurrentHashMap<>();
+    // Version globale, incrémentée à chaque vidage complet
+    private final AtomicInteger epoch = new AtomicInteger();
+
+    // Compteurs d'utilisation
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize Nombre maximal d'entrées conservées (0 désactive le cache).
+     */
+    public DerivativeCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        int segmentCount = this.maxSize == 0 ? 0 : Math.min(SEGMENTS, this.maxSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int capacity = this.maxSize / segmentCount + (i < this.maxSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(capacity);
+        }
+        AtomicIntegerArray[] initial = new AtomicIntegerArray[RootType.values().length];
+        for (int t = 0; t < initial.length; t++) initial[t] = new AtomicIntegerArray(0);
+        this.versions = initial;
+    }
+
+    // ==========================================
+    //            LECTURE / ÉCRITURE
+    // ==========================================
+
+    /**
+     * Estampille courante d'une cellule (racine, schème), à transmettre à put.
+     * À lire APRÈS le calcul du dérivé, puis à valider en vérifiant que l'instantané de règles
+     * utilisé est toujours publié : les écrivains publient avant d'invalider, si bien qu'un calcul
+     * sur un instantané remplacé est soit écarté par cette vérification, soit périmé par l'invalidation.
+     */
+    public long stamp(int rootId, RootType type, int schemeId) {
+        AtomicIntegerArray byScheme = versions[type.ordinal()];
+        long version = schemeId < byScheme.length() ? byScheme.get(schemeId) : 0;
+        if (!cellVersions.isEmpty()) version += cellVersions.getOrDefault(key(rootId, schemeId), 0);
+        return version + epoch.get();
+    }
+
+    /**
+     * Lit un dérivé en cache.
+     *
+     * @param rootId   Identifiant de la racine (AVLTree.Node.id).
+     * @param schemeId Identifiant du schème.
+     * @return Le mot, ou null s'il est absent ou périmé.
+     */
+    public String get(int rootId, int schemeId) {
+        if (segments.length == 0) {
+            misses.increment();
+            return null;
+        }
+        long key = key(rootId, schemeId);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry != null && entry.stamp == stamp(rootId, entry.type, schemeId)) {
+                hits.increment();
+                return entry.word;
+            }
+            if (entry != null) segment.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Enregistre un dérivé calculé sous l'estampille lue après le calcul (voir stamp).
+     */
+    public void put(int rootId, RootType type, int schemeId, String word, long stamp) {
+        if (segments.length == 0) return;
+        long key = key(rootId, schemeId);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry(word, type, stamp));
+        }
+    }
+
+    // ==========================================
+    //              INVALIDATION
+    // ==========================================
+
+    /**
+     * Périme les dérivés d'un type de racine pour un schème (groupe type_schème modifié).
+     */
+    public synchronized void invalidate(RootType type, int schemeId) {
+        ensureSchemeCapacity(schemeId + 1);
+        versions[type.ordinal()].incrementAndGet(schemeId);
+    }
+
+    /**
+     * Périme la colonne entière d'un schème (schème ajouté, modifié ou supprimé).
+     */
+    public synchronized void invalidateScheme(int schemeId) {
+        ensureSchemeCapacity(schemeId + 1);
+        for (AtomicIntegerArray byScheme : versions) byScheme.incrementAndGet(schemeId);
+    }
+
+    /**
+     * Périme l'unique cellule d'un couple (racine, schème) (groupe d'exception modifié).
+     */
+    public void invalidate(int rootId, int schemeId) {
+        long key = key(rootId, schemeId);
+        cellVersions.merge(key, 1, Integer::sum);
+        if (segments.length == 0) return;
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Vide entièrement le cache (rechargement complet des règles). La version globale
+     * est incrémentée d'abord : un calcul concurrent ne peut pas y réinscrire un mot périmé.
+     */
+    public void clear() {
+        epoch.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private synchronized void ensureSchemeCapacity(int schemeCount) {
+        AtomicIntegerArray[] current = versions;
+        if (schemeCount <= current[0].length()) return;
+        int capacity = Math.max(schemeCount, current[0].length() * 2);
+        AtomicIntegerArray[] grown = new AtomicIntegerArray[current.length];
+        for (int t = 0; t < current.length; t++) {
+            grown[t] = new AtomicIntegerArray(capacity);
+            for (int s = 0; s < current[t].length(); s++) grown[t].set(s, current[t].get(s));
+        }
+        versions = grown;
+    }
+
+    // ==========================================
+    //              STATISTIQUES
+    // ==========================================
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Le nombre d'entrées présentes (entrées périmées non encore retirées comprises).
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // ==========================================
+    //              UTILITAIRES
+    // ==========================================
+
+    private static long key(int rootId, int schemeId) {
+        return ((long) rootId << 32) | (schemeId & 0xFFFFFFFFL);
+    }
+
+    private Segment segmentFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) ((h >>> 33) % segments.length)];
+    }
+}
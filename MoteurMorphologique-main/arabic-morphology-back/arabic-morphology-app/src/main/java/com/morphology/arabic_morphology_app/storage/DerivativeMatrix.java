@@ -0,0 +1,99 @@
+package com.morphology.arabic_morphology_app.storage;
+
+/**
+ * Matrice matérialisée des dérivés : une cellule par couple (racine, schème),
+ * indexée par l'identifiant de la racine (ligne) et l'identifiant du schème (colonne).
+ * Une cellule nulle signifie que le dérivé n'a pas (encore) été calculé.
+ * Les écritures doivent être sérialisées par l'appelant ; les lectures peuvent être concurrentes.
+ */
+public class DerivativeMatrix {
+
+    private volatile String[][] rows = new String[0][];
+    private int schemeCapacity = 0;
+
+    // ==========================================
+    //            LECTURE / ÉCRITURE
+    // ==========================================
+
+    /**
+     * Lit le dérivé matérialisé d'un couple (racine, schème).
+     *
+     * @param rootId   Identifiant de la racine.
+     * @param schemeId Identifiant du schème.
+     * @return Le mot dérivé, ou null s'il n'est pas matérialisé.
+     */
+    public String get(int rootId, int schemeId) {
+        String[][] current = rows;
+        if (rootId >= current.length) return null;
+        String[] row = current[rootId];
+        return row == null || schemeId >= row.length ? null : row[schemeId];
+    }
+
+    /**
+     * Enregistre le dérivé d'un couple (racine, schème), en agrandissant la matrice si besoin.
+     *
+     * @param rootId   Identifiant de la racine.
+     * @param schemeId Identifiant du schème.
+     * @param word     Le mot dérivé.
+     */
+    public void set(int rootId, int schemeId, String word) {
+        ensureCapacity(rootId + 1, schemeId + 1);
+        String[] row = rows[rootId];
+        if (row == null) {
+            row = new String[schemeCapacity];
+            rows[rootId] = row;
+        }
+        row[schemeId] = word;
+    }
+
+    /**
+     * Efface la colonne d'un schème (suppression du schème).
+     *
+     * @param schemeId Identifiant du schème.
+     */
+    public void clearColumn(int schemeId) {
+        if (schemeId >= schemeCapacity) return;
+        for (String[] row : rows) {
+            if (row != null) row[schemeId] = null;
+        }
+    }
+
+    /**
+     * Efface la ligne d'une racine.
+     *
+     * @param rootId Identifiant de la racine.
+     */
+    public void clearRow(int rootId) {
+        if (rootId < rows.length) rows[rootId] = null;
+    }
+
+    /**
+     * Vide entièrement la matrice.
+     */
+    public void clear() {
+        rows = new String[0][];
+        schemeCapacity = 0;
+    }
+
+    // ==========================================
+    //            GESTION DE LA TAILLE
+    // ==========================================
+
+    private void ensureCapacity(int rootCount, int schemeCount) {
+        if (rootCount > rows.length) {
+            String[][] grown = new String[Math.max(rootCount, rows.length * 2)][];
+            System.arraycopy(rows, 0, grown, 0, rows.length);
+            rows = grown;
+        }
+        if (schemeCount > schemeCapacity) {
+            int newCapacity = Math.max(schemeCount, schemeCapacity * 2);
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] == null) continue;
+                String[] grown = new String[newCapacity];
+                System.arraycopy(rows[i], 0, grown, 0, schemeCapacity);
+                rows[i] = grown;
+            }
+            schemeCapacity = newCapacity;
+        }
+    }
+}
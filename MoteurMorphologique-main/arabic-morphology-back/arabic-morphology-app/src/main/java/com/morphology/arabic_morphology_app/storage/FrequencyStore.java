@@ -0,0 +1,308 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stockage durable des fréquences de dérivés dans un fichier projeté en mémoire.
+ * Chaque compteur occupe un enregistrement de largeur fixe qui porte le mot compté
+ * (racine, schème, dérivé) : une mise à jour est une addition atomique en place, sans
+ * sérialisation, et un compteur reste attaché à son mot même si la règle du schème change.
+ *
+ * Organisation du fichier (petit-boutiste) :
+ * <pre>
+ *   en-tête         : magic, version, nb enregistrements (32 octets)
+ *   enregistrements : compteur (long) + racine + schème + dérivé (clés : longueur sur 2 octets + UTF-8)
+ * </pre>
+ * Le fichier croît par blocs d'enregistrements projetés séparément : un agrandissement
+ * étend le fichier et projette le seul nouveau bloc, sans recopier l'existant.
+ * Les positions sont calculées en long ; le nombre d'enregistrements est borné par MAX_RECORDS.
+ */
+public class FrequencyStore implements AutoCloseable {
+
+    private static final int MAGIC = 0x4D465251; // "MFRQ"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int OFF_RECORD_COUNT = 8;
+
+    private static final int KEY_BYTES = 64;
+    private static final int MAX_KEY_LENGTH = KEY_BYTES - 2;
+    private static final int RECORD_BYTES = 8 + 3 * KEY_BYTES; // Multiple de 8 : compteurs alignés
+    static final int BLOCK_RECORDS = 4096;
+    private static final int BLOCK_BYTES = BLOCK_RECORDS * RECORD_BYTES;
+    private static final int MAX_RECORDS = BLOCK_RECORDS * 4096; // ~3,3 Go
+
+    // Accès atomique aux compteurs (addition en place dans le tampon projeté)
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** Visiteur des compteurs non nuls (rechargement au démarrage). */
+    public interface CounterVisitor {
+        void visit(String root, String scheme, String word, long count);
+    }
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private volatile MappedByteBuffer[] blocks = new MappedByteBuffer[0];
+
+    // Correspondance (racine, dérivé) -> numéro d'enregistrement
+    private final Map<String, Integer> slots = new HashMap<>();
+    private boolean full;
+
+    // Lecture : additions concurrentes ; écriture : ajout d'un enregistrement ou d'un bloc
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FrequencyStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Ouvre (ou crée) le fichier de fréquences et en relit les clés.
+     *
+     * @param file Le chemin du fichier.
+     * @return Le magasin ouvert.
+     */
+    public static FrequencyStore open(Path file) {
+        FrequencyStore store = new FrequencyStore(file);
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            store.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (!store.load()) store.create();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur ouverture " + file + ": " + e.getMessage(), e);
+        }
+        return store;
+    }
+
+    // ==========================================
+    //            MISES À JOUR EN PLACE
+    // ==========================================
+
+    /**
+     * Ajoute des occurrences au compteur d'un dérivé.
+     *
+     * @param root   La racine.
+     * @param scheme Le nom du schème qui a produit le dérivé.
+     * @param word   Le dérivé.
+     * @param count  Le nombre d'occurrences à ajouter.
+     */
+    public void add(String root, String scheme, String word, long count) {
+        String key = key(root, word);
+        lock.readLock().lock();
+        try {
+            Integer slot = slots.get(key);
+            if (slot != null) {
+                LONGS.getAndAdd(block(slot), counterOffset(slot), count);
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Dérivé inconnu : nouvel enregistrement (et bloc éventuel) sous verrou exclusif
+        lock.writeLock().lock();
+        try {
+            int slot = slotFor(key, root, scheme, word);
+            if (slot < 0) return;
+            LONGS.getAndAdd(block(slot), counterOffset(slot), count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Parcourt les compteurs non nuls.
+     */
+    public void forEach(CounterVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            int count = slots.size();
+            for (int slot = 0; slot < count; slot++) {
+                MappedByteBuffer block = block(slot);
+                int offset = counterOffset(slot);
+                long value = (long) LONGS.getVolatile(block, offset);
+                if (value == 0) continue;
+                visitor.visit(readKey(block, offset + 8), readKey(block, offset + 8 + KEY_BYTES),
+                        readKey(block, offset + 8 + 2 * KEY_BYTES), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Point de reprise : force l'écriture des pages modifiées sur disque.
+     */
+    public void checkpoint() {
+        lock.readLock().lock();
+        try {
+            for (MappedByteBuffer block : blocks) block.force();
+            header.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (MappedByteBuffer block : blocks) block.force();
+            header.force();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Erreur fermeture " + file + ": " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==========================================
+    //       ENREGISTREMENTS (VERROU EXCLUSIF)
+    // ==========================================
+
+    private int slotFor(String key, String root, String scheme, String word) {
+        Integer existing = slots.get(key);
+        if (existing != null) return existing;
+
+        byte[][] fields = {
+                root.getBytes(StandardCharsets.UTF_8),
+                scheme.getBytes(StandardCharsets.UTF_8),
+                word.getBytes(StandardCharsets.UTF_8)};
+        for (byte[] field : fields) {
+            if (field.length > MAX_KEY_LENGTH) {
+                System.err.println("Clé trop longue pour le stockage des fréquences : " + root + " / " + word);
+                return -1;
+            }
+        }
+        int slot = slots.size();
+        if (slot >= MAX_RECORDS) {
+            if (!full) System.err.println("Stockage des fréquences plein (" + MAX_RECORDS + " dérivés) : " + file);
+            full = true;
+            return -1;
+        }
+        if (slot / BLOCK_RECORDS >= blocks.length) addBlock();
+
+        MappedByteBuffer block = block(slot);
+        int offset = counterOffset(slot) + 8;
+        for (byte[] field : fields) {
+            block.putShort(offset, (short) field.length);
+            block.put(offset + 2, field);
+            offset += KEY_BYTES;
+        }
+        // Le nombre d'enregistrements n'est incrémenté qu'une fois l'enregistrement écrit
+        header.putInt(OFF_RECORD_COUNT, slot + 1);
+        slots.put(key, slot);
+        return slot;
+    }
+
+    /**
+     * Étend le fichier d'un bloc et projette ce seul bloc.
+     */
+    private void addBlock() {
+        try {
+            MappedByteBuffer[] current = blocks;
+            MappedByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = mapBlock(current.length);
+            blocks = grown;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erreur agrandissement " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ==========================================
+    //         CRÉATION, PROJECTION, RELECTURE
+    // ==========================================
+
+    private void create() throws IOException {
+        channel.truncate(0);
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(OFF_RECORD_COUNT, 0);
+        header.force();
+        blocks = new MappedByteBuffer[0];
+        slots.clear();
+    }
+
+    private MappedByteBuffer mapBlock(int index) throws IOException {
+        MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_WRITE, blockPosition(index), BLOCK_BYTES);
+        block.order(ByteOrder.LITTLE_ENDIAN);
+        return block;
+    }
+
+    /**
+     * Projette un fichier existant et relit ses clés.
+     *
+     * @return Faux si le fichier est vide ou n'est pas un stockage de fréquences valide (il sera recréé).
+     */
+    private boolean load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_BYTES) return false;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int count = header.getInt(OFF_RECORD_COUNT);
+        int blockCount = (count + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+        boolean valid = header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                && count >= 0 && count <= MAX_RECORDS && size >= blockPosition(blockCount);
+        if (!valid) {
+            System.err.println("Fichier de fréquences invalide ou d'un format antérieur, recréé : " + file);
+            return false;
+        }
+
+        MappedByteBuffer[] loaded = new MappedByteBuffer[blockCount];
+        for (int i = 0; i < blockCount; i++) loaded[i] = mapBlock(i);
+        blocks = loaded;
+        for (int slot = 0; slot < count; slot++) {
+            MappedByteBuffer block = block(slot);
+            int offset = counterOffset(slot) + 8;
+            slots.put(key(readKey(block, offset), readKey(block, offset + 2 * KEY_BYTES)), slot);
+        }
+        return true;
+    }
+
+    private static String readKey(MappedByteBuffer block, int offset) {
+        byte[] bytes = new byte[block.getShort(offset)];
+        block.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ==========================================
+    //              POSITIONS
+    // ==========================================
+
+    private static String key(String root, String word) {
+        return root + '\u0000' + word;
+    }
+
+    private static long blockPosition(int index) {
+        return HEADER_BYTES + (long) index * BLOCK_BYTES;
+    }
+
+    private MappedByteBuffer block(int slot) {
+        return blocks[slot / BLOCK_RECORDS];
+    }
+
+    /**
+     * Position du compteur dans son bloc (inférieure à BLOCK_BYTES, donc représentable en int).
+     */
+    private static int counterOffset(int slot) {
+        return (slot % BLOCK_RECORDS) * RECORD_BYTES;
+    }
+}
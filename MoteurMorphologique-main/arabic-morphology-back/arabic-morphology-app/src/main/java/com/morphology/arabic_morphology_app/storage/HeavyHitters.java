@@ -0,0 +1,190 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Éléments les plus fréquents d'un flux (top-k approché) en mémoire bornée, par l'algorithme
+ * Space-Saving : au plus capacity compteurs ; un élément nouveau, lorsque tous sont pris,
+ * remplace l'élément de plus petit compte et hérite de ce compte comme erreur.
+ * Le compte affiché majore donc le compte réel d'au plus error, et tout élément dont la
+ * fréquence dépasse total / capacity est assuré d'être suivi.
+ *
+ * Le flux est réparti en segments indépendants (choisis selon le thread) pour limiter la
+ * contention ; leurs résumés sont fusionnés à la lecture (un élément absent d'un segment
+ * plein y est compté pour le minimum de ce segment, ce qui préserve la majoration).
+ */
+public class HeavyHitters {
+
+    /**
+     * Élément suivi : compte estimé (majorant) et erreur maximale de l'estimation.
+     */
+    public static final class Entry {
+        public final String item;
+        public final long count;
+        public final long error;
+
+        Entry(String item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Résumé Space-Saving d'un segment : tas binaire minimum des compteurs, indexé par élément.
+     */
+    private static final class Summary {
+        private final Counter[] heap;
+        private final Map<String, Counter> index = new HashMap<>();
+        private int size;
+
+        Summary(int capacity) {
+            heap = new Counter[capacity];
+        }
+
+        synchronized void add(String item, long weight) {
+            Counter c = index.get(item);
+            if (c == null && size < heap.length) {
+                c = new Counter(item, weight);
+                index.put(item, c);
+                heap[size] = c;
+                siftUp(size++);
+                return;
+            }
+            if (c == null) {
+                // Remplacement du plus petit compteur : son compte devient l'erreur du nouvel élément
+                c = heap[0];
+                index.remove(c.item);
+                c.item = item;
+                c.error = c.count;
+                index.put(item, c);
+            }
+            c.count += weight;
+            siftDown(c.pos); // Le compte n'a fait qu'augmenter
+        }
+
+        /**
+         * @return Les compteurs copiés, et le plus petit compte si le résumé est plein (0 sinon).
+         */
+        synchronized long snapshot(Map<String, long[]> into) {
+            for (int i = 0; i < size; i++) into.put(heap[i].item, new long[]{heap[i].count, heap[i].error});
+            return size == heap.length ? heap[0].count : 0;
+        }
+
+        private void siftUp(int i) {
+            Counter c = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent].count <= c.count) break;
+                heap[i] = heap[parent];
+                heap[i].pos = i;
+                i = parent;
+            }
+            heap[i] = c;
+            c.pos = i;
+        }
+
+        private void siftDown(int i) {
+            Counter c = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && heap[child + 1].count < heap[child].count) child++;
+                if (heap[child].count >= c.count) break;
+                heap[i] = heap[child];
+                heap[i].pos = i;
+                i = child;
+            }
+            heap[i] = c;
+            c.pos = i;
+        }
+    }
+
+    private static final class Counter {
+        String item;
+        long count;
+        long error;
+        int pos;
+
+        Counter(String item, long count) {
+            this.item = item;
+            this.count = count;
+        }
+    }
+
+    private final int capacity;
+    private final Summary[] summaries;
+
+    /**
+     * @param capacity Nombre de compteurs par segment (0 : suivi désactivé).
+     * @param segments Nombre de segments.
+     */
+    public HeavyHitters(int capacity, int segments) {
+        this.capacity = Math.max(0, capacity);
+        this.summaries = new Summary[this.capacity == 0 ? 0 : Math.max(1, segments)];
+        for (int i = 0; i < summaries.length; i++) summaries[i] = new Summary(this.capacity);
+    }
+
+    // ==========================================
+    //            API PUBLIQUE
+    // ==========================================
+
+    /**
+     * Compte des occurrences d'un élément.
+     * @param item   L'élément observé.
+     * @param weight Le nombre d'occurrences.
+     */
+    public void add(String item, long weight) {
+        if (summaries.length == 0 || weight <= 0) return;
+        int h = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        summaries[((h ^ (h >>> 16)) & 0x7FFFFFFF) % summaries.length].add(item, weight);
+    }
+
+    /**
+     * @param k Le nombre d'éléments souhaité.
+     * @return Au plus k éléments, par compte estimé décroissant.
+     */
+    public List<Entry> top(int k) {
+        List<Map<String, long[]>> snapshots = new ArrayList<>(summaries.length);
+        long[] minima = new long[summaries.length];
+        Set<String> items = new HashSet<>();
+        for (int s = 0; s < summaries.length; s++) {
+            Map<String, long[]> snapshot = new HashMap<>();
+            minima[s] = summaries[s].snapshot(snapshot);
+            snapshots.add(snapshot);
+            items.addAll(snapshot.keySet());
+        }
+
+        List<Entry> entries = new ArrayList<>(items.size());
+        for (String item : items) {
+            long count = 0, error = 0;
+            for (int s = 0; s < summaries.length; s++) {
+                long[] c = snapshots.get(s).get(item);
+                count += c != null ? c[0] : minima[s];
+                error += c != null ? c[1] : minima[s];
+            }
+            entries.add(new Entry(item, count, error));
+        }
+        entries.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : a.item.compareTo(b.item));
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, Math.max(0, k))) : entries;
+    }
+
+    /**
+     * @return Le nombre de compteurs par segment.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Le nombre total de compteurs (mémoire occupée, indépendante du flux).
+     */
+    public int getTotalCounters() {
+        return capacity * summaries.length;
+    }
+}
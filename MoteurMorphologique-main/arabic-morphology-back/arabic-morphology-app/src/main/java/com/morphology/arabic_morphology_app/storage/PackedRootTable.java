@@ -0,0 +1,331 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Stockage compact des racines : chaque racine est codée dans un int (6 bits par lettre,
+ * jusqu'à 5 lettres), rangé dans une table de hachage primitive à adressage ouvert
+ * (code -> identifiant) accompagnée de tableaux parallèles indexés par identifiant.
+ *
+ * Une recherche est un seul sondage de hachage, sans comparaison de chaînes. Les nœuds
+ * (dérivés validés) ne sont créés qu'à la première demande : une racine jamais consultée
+ * ne coûte que son code et son entrée de table, soit une dizaine d'octets.
+ * Les lettres hors de l'intervalle U+0621..U+065F, ou les racines de plus de 5 lettres,
+ * sont rangées dans une table de débordement.
+ *
+ * Le code préserve l'ordre alphabétique (première lettre en poids fort, positions vides
+ * à zéro) : trier les codes revient à trier les racines.
+ * Les ajouts sont sérialisés et publient un nouvel état ; les lectures sont sans verrou.
+ */
+public class PackedRootTable implements RootStore {
+
+    private static final char FIRST_LETTER = '\u0621'; // ء
+    private static final char LAST_LETTER = '\u065F';  // 63 caractères : codes 1..63
+    private static final int BITS_PER_LETTER = 6;
+    private static final int MAX_LETTERS = 5;
+
+    /**
+     * État publié : jamais modifié après publication, hormis la création paresseuse des nœuds.
+     */
+    private static final class Table {
+        final int[] keys;      // codes (0 : emplacement libre), capacité puissance de 2
+        final int[] ids;       // identifiant associé à chaque clé
+        final int[] codes;     // code par identifiant (-1 : racine en débordement)
+        final int[] sorted;    // identifiants dans l'ordre alphabétique
+        final Map<String, Integer> overflow;
+        final AtomicReferenceArray<AVLTree.Node> nodes;
+        final int size;
+
+        Table(int[] keys, int[] ids, int[] codes, int[] sorted, Map<String, Integer> overflow,
+              AtomicReferenceArray<AVLTree.Node> nodes, int size) {
+            this.keys = keys;
+            this.ids = ids;
+            this.codes = codes;
+            this.sorted = sorted;
+            this.overflow = overflow;
+            this.nodes = nodes;
+            this.size = size;
+        }
+    }
+
+    private volatile Table table = new Table(new int[16], new int[16], new int[0], new int[0],
+            Map.of(), new AtomicReferenceArray<>(0), 0);
+
+    // ==========================================
+    //            CODAGE DES RACINES
+    // ==========================================
+
+    /**
+     * Code une racine dans un int.
+     * @param root La racine.
+     * @return Le code (strictement positif), ou -1 si la racine n'est pas codable.
+     */
+    public static int encode(String root) {
+        int length = root.length();
+        if (length == 0 || length > MAX_LETTERS) return -1;
+        int code = 0;
+        for (int i = 0; i < MAX_LETTERS; i++) {
+            int letter = 0;
+            if (i < length) {
+                char c = root.charAt(i);
+                if (c < FIRST_LETTER || c > LAST_LETTER) return -1;
+                letter = c - FIRST_LETTER + 1;
+            }
+            code = (code << BITS_PER_LETTER) | letter;
+        }
+        return code;
+    }
+
+    /**
+     * @param code Un code produit par encode.
+     * @return La racine correspondante.
+     */
+    public static String decode(int code) {
+        char[] letters = new char[MAX_LETTERS];
+        int length = 0;
+        for (int i = MAX_LETTERS - 1; i >= 0; i--) {
+            int letter = (code >>> (BITS_PER_LETTER * i)) & ((1 << BITS_PER_LETTER) - 1);
+            if (letter == 0) break;
+            letters[length++] = (char) (FIRST_LETTER + letter - 1);
+        }
+        return new String(letters, 0, length);
+    }
+
+    // ==========================================
+    //            API PUBLIQUE
+    // ==========================================
+
+    /**
+     * @throws IllegalArgumentException si le tableau n'est pas strictement croissant.
+     */
+    @Override
+    public synchronized void bulkLoad(String[] sortedRoots) {
+        for (int i = 1; i < sortedRoots.length; i++) {
+            if (sortedRoots[i - 1].compareTo(sortedRoots[i]) >= 0) {
+                throw new IllegalArgumentException("Racines non triées ou dupliquées : "
+                        + sortedRoots[i - 1] + ", " + sortedRoots[i]);
+            }
+        }
+
+        Table current = table;
+        int[] codes = Arrays.copyOf(current.codes, current.size + sortedRoots.length);
+        Map<String, Integer> overflow = new HashMap<>(current.overflow);
+        List<AVLTree.Node> created = new ArrayList<>();
+        int size = current.size;
+        for (String root : sortedRoots) {
+            if (lookup(current, root) >= 0) continue; // Doublons non autorisés
+            int code = encode(root);
+            if (code < 0) {
+                if (overflow.putIfAbsent(root, size) != null) continue;
+                // Une racine en débordement garde son nœud (seule trace de sa chaîne)
+                AVLTree.Node node = new AVLTree.Node(root);
+                node.id = size;
+                created.add(node);
+            }
+            codes[size++] = code;
+        }
+        codes = Arrays.copyOf(codes, size);
+
+        // Table de hachage : facteur de charge au plus 1/2
+        int capacity = Integer.highestOneBit(Math.max(16, size * 2 - 1)) << 1;
+        int[] keys = new int[capacity];
+        int[] ids = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            if (codes[id] < 0) continue;
+            int i = slot(codes[id], capacity);
+            while (keys[i] != 0) i = (i + 1) & (capacity - 1);
+            keys[i] = codes[id];
+            ids[i] = id;
+        }
+
+        AtomicReferenceArray<AVLTree.Node> nodes = new AtomicReferenceArray<>(size);
+        for (int id = 0; id < current.size; id++) nodes.set(id, current.nodes.get(id));
+        for (AVLTree.Node node : created) nodes.set(node.id, node);
+
+        table = new Table(keys, ids, codes, sortedIds(codes, nodes, size), Map.copyOf(overflow), nodes, size);
+    }
+
+    @Override
+    public AVLTree.Node find(String root) {
+        Table t = table;
+        int id = lookup(t, root);
+        return id < 0 ? null : node(t, id);
+    }
+
+    @Override
+    public boolean contains(String root) {
+        return lookup(table, root) >= 0;
+    }
+
+    /**
+     * Crée tous les nœuds qui ne l'ont pas encore été : à réserver aux parcours complets.
+     */
+    @Override
+    public List<AVLTree.Node> getAllNodes() {
+        Table t = table;
+        List<AVLTree.Node> result = new ArrayList<>(t.size);
+        for (int id : t.sorted) result.add(node(t, id));
+        return result;
+    }
+
+    @Override
+    public List<String> getAllRoots() {
+        Table t = table;
+        List<String> result = new ArrayList<>(t.size);
+        for (int id : t.sorted) result.add(rootOf(t, id));
+        return result;
+    }
+
+    /**
+     * Ne visite que les nœuds déjà créés : les autres n'ont aucun dérivé.
+     */
+    @Override
+    public void forEachNode(Consumer<AVLTree.Node> visitor) {
+        Table t = table;
+        for (int id : t.sorted) {
+            AVLTree.Node node = t.nodes.get(id);
+            if (node != null) visitor.accept(node);
+        }
+    }
+
+    /**
+     * Parcours par identifiants et codes : aucun nœud n'est créé.
+     */
+    @Override
+    public void forEachRoot(RootVisitor visitor) {
+        Table t = table;
+        for (int id : t.sorted) visitor.visit(id, rootOf(t, id));
+    }
+
+    @Override
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Recherche dichotomique dans l'ordre alphabétique : O(log n) décodages.
+     */
+    @Override
+    public int rank(String root) {
+        return rank(table, root);
+    }
+
+    @Override
+    public String select(int k) {
+        Table t = table;
+        return k < 0 || k >= t.size ? null : rootOf(t, t.sorted[k]);
+    }
+
+    @Override
+    public List<String> getRoots(int offset, int limit) {
+        return page(table, offset, limit);
+    }
+
+    /**
+     * Bornes et page calculées sur un seul état publié.
+     */
+    @Override
+    public List<String> getRange(String from, String to, int limit) {
+        Table t = table;
+        int lo = from == null ? 0 : rank(t, from);
+        int hi = to == null ? t.size : rank(t, to) + (lookup(t, to) >= 0 ? 1 : 0);
+        return page(t, lo, Math.min(limit, Math.max(0, hi - lo)));
+    }
+
+    // ==========================================
+    //            TABLE ET NŒUDS
+    // ==========================================
+
+    /**
+     * @return L'identifiant de la racine, ou -1 si elle est absente.
+     */
+    private static int lookup(Table t, String root) {
+        int code = encode(root);
+        if (code < 0) {
+            Integer id = t.overflow.get(root);
+            return id == null ? -1 : id;
+        }
+        int mask = t.keys.length - 1;
+        for (int i = slot(code, t.keys.length); t.keys[i] != 0; i = (i + 1) & mask) {
+            if (t.keys[i] == code) return t.ids[i];
+        }
+        return -1;
+    }
+
+    private static int slot(int code, int capacity) {
+        int h = code * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (capacity - 1);
+    }
+
+    /**
+     * Retourne le nœud d'une racine, créé à la première demande. La création se fait sous le
+     * même verrou que bulkLoad, afin qu'un nœud créé pendant un rechargement ne soit pas perdu.
+     */
+    private AVLTree.Node node(Table t, int id) {
+        AVLTree.Node node = t.nodes.get(id);
+        if (node != null) return node;
+        synchronized (this) {
+            Table latest = table; // Les identifiants sont conservés d'un état à l'autre
+            node = latest.nodes.get(id);
+            if (node == null) {
+                node = new AVLTree.Node(decode(latest.codes[id]));
+                node.id = id;
+                latest.nodes.set(id, node);
+            }
+            return node;
+        }
+    }
+
+    private static int rank(Table t, String root) {
+        int lo = 0, hi = t.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (rootOf(t, t.sorted[mid]).compareTo(root) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static List<String> page(Table t, int offset, int limit) {
+        int from = Math.max(0, offset);
+        int to = (int) Math.min(t.size, (long) from + Math.max(0, limit));
+        List<String> result = new ArrayList<>(Math.max(0, to - from));
+        for (int k = from; k < to; k++) result.add(rootOf(t, t.sorted[k]));
+        return result;
+    }
+
+    private static String rootOf(Table t, int id) {
+        return t.codes[id] >= 0 ? decode(t.codes[id]) : t.nodes.get(id).root;
+    }
+
+    /**
+     * Ordre alphabétique : tri des codes, puis fusion avec les racines en débordement.
+     */
+    private static int[] sortedIds(int[] codes, AtomicReferenceArray<AVLTree.Node> nodes, int size) {
+        // Code (30 bits) en poids fort, identifiant en poids faible : un seul tri de long
+        long[] packed = new long[size];
+        int n = 0;
+        List<AVLTree.Node> overflow = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            if (codes[id] >= 0) packed[n++] = ((long) codes[id] << 32) | id;
+            else overflow.add(nodes.get(id));
+        }
+        Arrays.sort(packed, 0, n);
+        overflow.sort((a, b) -> a.root.compareTo(b.root));
+
+        int[] sorted = new int[size];
+        int i = 0, j = 0, k = 0;
+        while (i < n || j < overflow.size()) {
+            boolean takeCode = j == overflow.size()
+                    || (i < n && decode((int) (packed[i] >>> 32)).compareTo(overflow.get(j).root) < 0);
+            sorted[k++] = takeCode ? (int) packed[i++] : overflow.get(j++).id;
+        }
+        return sorted;
+    }
+}
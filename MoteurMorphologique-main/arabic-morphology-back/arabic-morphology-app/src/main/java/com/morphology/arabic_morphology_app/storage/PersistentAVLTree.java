@@ -0,0 +1,260 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Variante persistante de l'arbre AVL des racines.
+ *
+ * Les nœuds de l'arbre sont immuables : chaque chargement en bloc (bulkLoad) fusionne les
+ * nouvelles racines avec la version courante dans un nouvel arbre équilibré, publié d'un seul coup.
+ * Un lecteur (statistiques, export de l'arbre, génération en masse) travaille donc sur une
+ * version cohérente, sans verrou, même si un chargement publie une nouvelle version pendant son parcours.
+ *
+ * Les données d'une racine (identifiant, dérivés validés) sont portées par un AVLTree.Node
+ * partagé entre toutes les versions : seule la structure de l'arbre est reconstruite.
+ * Les chargements sont sérialisés.
+ */
+public class PersistentAVLTree implements RootStore {
+
+    /**
+     * Nœud de structure, jamais modifié après sa création.
+     */
+    static final class Tree {
+        final AVLTree.Node entry;
+        final Tree left, right;
+        final int height;
+        final int size; // Nombre de nœuds du sous-arbre (statistiques d'ordre)
+
+        Tree(AVLTree.Node entry, Tree left, Tree right) {
+            this.entry = entry;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+
+        String key() {
+            return entry.root;
+        }
+    }
+
+    private volatile Tree current; // Version publiée (null : arbre vide)
+    private int nextId = 0; // Jamais réutilisé : les identifiants indexent des tableaux annexes
+
+    // ==========================================
+    //            API PUBLIQUE
+    // ==========================================
+
+    /**
+     * Chargement en bloc : fusion avec la version courante, puis construction d'un arbre
+     * parfaitement équilibré publié en une seule fois.
+     * @throws IllegalArgumentException si le tableau n'est pas strictement croissant.
+     */
+    @Override
+    public synchronized void bulkLoad(String[] sortedRoots) {
+        for (int i = 1; i < sortedRoots.length; i++) {
+            if (sortedRoots[i - 1].compareTo(sortedRoots[i]) >= 0) {
+                throw new IllegalArgumentException("Racines non triées ou dupliquées : "
+                        + sortedRoots[i - 1] + ", " + sortedRoots[i]);
+            }
+        }
+
+        List<AVLTree.Node> existing = getAllNodes();
+        AVLTree.Node[] merged = new AVLTree.Node[existing.size() + sortedRoots.length];
+        int n = 0, i = 0, j = 0;
+        while (i < existing.size() || j < sortedRoots.length) {
+            int cmp = i == existing.size() ? 1
+                    : j == sortedRoots.length ? -1
+                    : existing.get(i).root.compareTo(sortedRoots[j]);
+            if (cmp <= 0) {
+                merged[n++] = existing.get(i++);
+                if (cmp == 0) j++; // Doublons non autorisés
+            } else {
+                AVLTree.Node created = new AVLTree.Node(sortedRoots[j++]);
+                created.id = nextId++;
+                merged[n++] = created;
+            }
+        }
+        current = build(merged, 0, n - 1);
+    }
+
+    @Override
+    public AVLTree.Node find(String root) {
+        Tree t = find(current, root);
+        return t == null ? null : t.entry;
+    }
+
+    @Override
+    public boolean contains(String root) {
+        return find(current, root) != null;
+    }
+
+    @Override
+    public List<AVLTree.Node> getAllNodes() {
+        Tree t = current;
+        List<AVLTree.Node> nodes = new ArrayList<>(size(t));
+        inorderTraversal(t, nodes);
+        return nodes;
+    }
+
+    @Override
+    public List<String> getAllRoots() {
+        List<String> roots = new ArrayList<>();
+        for (AVLTree.Node node : getAllNodes()) roots.add(node.root);
+        return roots;
+    }
+
+    @Override
+    public int size() {
+        return size(current);
+    }
+
+    @Override
+    public int rank(String root) {
+        return rank(current, root);
+    }
+
+    @Override
+    public String select(int k) {
+        Tree t = current;
+        if (k < 0 || k >= size(t)) return null;
+        while (true) {
+            int left = size(t.left);
+            if (k == left) return t.key();
+            if (k < left) {
+                t = t.left;
+            } else {
+                k -= left + 1;
+                t = t.right;
+            }
+        }
+    }
+
+    @Override
+    public List<String> getRoots(int offset, int limit) {
+        return page(current, offset, limit);
+    }
+
+    /**
+     * Bornes et page calculées sur une seule version.
+     */
+    @Override
+    public List<String> getRange(String from, String to, int limit) {
+        Tree t = current;
+        int lo = from == null ? 0 : rank(t, from);
+        int hi = to == null ? size(t) : rank(t, to) + (find(t, to) != null ? 1 : 0);
+        return page(t, lo, Math.min(limit, Math.max(0, hi - lo)));
+    }
+
+    /**
+     * Copie de la version courante sous forme de nœuds AVLTree.Node chaînés (visualisation).
+     * Les copies ne portent que la racine, l'identifiant, la hauteur et la taille, pas les dérivés.
+     * @return La racine de la copie, ou null si l'arbre est vide.
+     */
+    public AVLTree.Node exportTree() {
+        return export(current);
+    }
+
+    /**
+     * @return La version publiée (la racine de sa structure), que les chargements suivants ne touchent pas.
+     */
+    Tree version() {
+        return current;
+    }
+
+    /**
+     * @return Les racines d'une version, dans l'ordre alphabétique.
+     */
+    static List<String> roots(Tree version) {
+        List<AVLTree.Node> nodes = new ArrayList<>(size(version));
+        inorderTraversal(version, nodes);
+        List<String> roots = new ArrayList<>(nodes.size());
+        for (AVLTree.Node node : nodes) roots.add(node.root);
+        return roots;
+    }
+
+    private static void inorderTraversal(Tree t, List<AVLTree.Node> nodes) {
+        if (t == null) return;
+        inorderTraversal(t.left, nodes);
+        nodes.add(t.entry);
+        inorderTraversal(t.right, nodes);
+    }
+
+    private static AVLTree.Node export(Tree t) {
+        if (t == null) return null;
+        AVLTree.Node copy = new AVLTree.Node(t.key());
+        copy.id = t.entry.id;
+        copy.height = t.height;
+        copy.size = t.size;
+        copy.left = export(t.left);
+        copy.right = export(t.right);
+        return copy;
+    }
+
+    // ==========================================
+    //         RECHERCHE ET CONSTRUCTION
+    // ==========================================
+
+    private static int rank(Tree t, String root) {
+        int rank = 0;
+        while (t != null) {
+            int cmp = root.compareTo(t.key());
+            if (cmp == 0) return rank + size(t.left);
+            if (cmp < 0) {
+                t = t.left;
+            } else {
+                rank += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Descente guidée par les tailles : O(log n + limit).
+     */
+    private static List<String> page(Tree t, int offset, int limit) {
+        List<String> roots = new ArrayList<>(Math.max(0, Math.min(limit, size(t) - offset)));
+        if (limit > 0) collectPage(t, Math.max(0, offset), limit, roots);
+        return roots;
+    }
+
+    private static void collectPage(Tree t, int offset, int limit, List<String> roots) {
+        if (t == null || roots.size() >= limit) return;
+        int left = size(t.left);
+        if (offset < left) collectPage(t.left, offset, limit, roots);
+        if (offset <= left && roots.size() < limit) roots.add(t.key());
+        collectPage(t.right, Math.max(0, offset - left - 1), limit, roots);
+    }
+
+    private static Tree find(Tree t, String target) {
+        while (t != null) {
+            int cmp = target.compareTo(t.key());
+            if (cmp == 0) return t;
+            t = cmp < 0 ? t.left : t.right;
+        }
+        return null;
+    }
+
+    /**
+     * Construit récursivement un sous-arbre équilibré : le médian devient la racine du sous-arbre.
+     */
+    private static Tree build(AVLTree.Node[] entries, int lo, int hi) {
+        if (lo > hi) return null;
+        int mid = (lo + hi) >>> 1;
+        return new Tree(entries[mid], build(entries, lo, mid - 1), build(entries, mid + 1, hi));
+    }
+
+    // ==========================================
+    //              UTILITAIRES
+    // ==========================================
+
+    private static int height(Tree t) {
+        return t == null ? 0 : t.height;
+    }
+
+    private static int size(Tree t) {
+        return t == null ? 0 : t.size;
+    }
+}
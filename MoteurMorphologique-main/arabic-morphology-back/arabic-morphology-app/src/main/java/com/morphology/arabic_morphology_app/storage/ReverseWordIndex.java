@@ -0,0 +1,117 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index inverse des dérivés : associe chaque forme de surface générée à l'ensemble
+ * des couples (racine, schème) qui la produisent.
+ * Chaque couple est codé dans un long (identifiant de racine sur les 32 bits de poids fort,
+ * identifiant de schème sur les 32 bits de poids faible) pour limiter l'empreinte mémoire.
+ * Les tableaux de couples ne sont jamais modifiés en place (copie à chaque écriture) :
+ * les lectures concurrentes d'une mise à jour sérialisée restent cohérentes.
+ */
+public class ReverseWordIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<String, long[]> index = new ConcurrentHashMap<>();
+
+    // ==========================================
+    //          CODAGE DES COUPLES
+    // ==========================================
+
+    /**
+     * Code un couple (racine, schème) dans un long.
+     */
+    public static long pair(int rootId, int schemeId) {
+        return ((long) rootId << 32) | (schemeId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return L'identifiant de racine d'un couple codé.
+     */
+    public static int rootId(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * @return L'identifiant de schème d'un couple codé.
+     */
+    public static int schemeId(long pair) {
+        return (int) pair;
+    }
+
+    // ==========================================
+    //            OPÉRATIONS DE BASE
+    // ==========================================
+
+    /**
+     * Enregistre qu'un couple (racine, schème) produit le mot donné.
+     */
+    public void add(String word, int rootId, int schemeId) {
+        long p = pair(rootId, schemeId);
+        long[] pairs = index.get(word);
+        if (pairs == null) {
+            index.put(word, new long[]{p});
+            return;
+        }
+        for (long existing : pairs) {
+            if (existing == p) return;
+        }
+        long[] grown = new long[pairs.length + 1];
+        System.arraycopy(pairs, 0, grown, 0, pairs.length);
+        grown[pairs.length] = p;
+        index.put(word, grown);
+    }
+
+    /**
+     * Retire l'association entre un mot et un couple (racine, schème).
+     */
+    public void remove(String word, int rootId, int schemeId) {
+        long[] pairs = index.get(word);
+        if (pairs == null) return;
+        long p = pair(rootId, schemeId);
+        int pos = -1;
+        for (int i = 0; i < pairs.length; i++) {
+            if (pairs[i] == p) {
+                pos = i;
+                break;
+            }
+        }
+        if (pos < 0) return;
+        if (pairs.length == 1) {
+            index.remove(word);
+            return;
+        }
+        long[] shrunk = new long[pairs.length - 1];
+        System.arraycopy(pairs, 0, shrunk, 0, pos);
+        System.arraycopy(pairs, pos + 1, shrunk, pos, pairs.length - pos - 1);
+        index.put(word, shrunk);
+    }
+
+    /**
+     * Retourne les couples (racine, schème) qui produisent le mot.
+     *
+     * @param word La forme de surface recherchée.
+     * @return Les couples codés (voir rootId/schemeId), ou un tableau vide.
+     */
+    public long[] lookup(String word) {
+        long[] pairs = index.get(word);
+        return pairs == null ? EMPTY : pairs;
+    }
+
+    /**
+     * Vide l'index.
+     */
+    public void clear() {
+        index.clear();
+    }
+
+    /**
+     * @return Le nombre de formes de surface distinctes indexées.
+     */
+    public int size() {
+        return index.size();
+    }
+}
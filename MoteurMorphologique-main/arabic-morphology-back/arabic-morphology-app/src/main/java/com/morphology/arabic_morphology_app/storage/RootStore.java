@@ -0,0 +1,109 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stockage des racines du lexique. Chaque racine est représentée par un nœud
+ * (identifiant stable, dérivés validés) retrouvé par sa chaîne.
+ * Trois implémentations, choisies par configuration (morphology.roots.store) :
+ * l'arbre AVL (AVLTree), l'arbre AVL persistant à versions (PersistentAVLTree)
+ * et la table compacte à adressage ouvert (PackedRootTable).
+ */
+public interface RootStore {
+
+    /** Implémentations disponibles. */
+    enum Kind { AVL, PERSISTENT, PACKED }
+
+    /**
+     * Ajoute des racines en bloc.
+     * @param sortedRoots Les racines, triées par ordre croissant et sans doublon.
+     */
+    void bulkLoad(String[] sortedRoots);
+
+    /**
+     * @param root La racine cible.
+     * @return Le nœud de la racine, ou null si elle est absente.
+     */
+    AVLTree.Node find(String root);
+
+    /**
+     * @param root La racine à rechercher.
+     * @return Vrai si la racine est présente.
+     */
+    boolean contains(String root);
+
+    /**
+     * @return Tous les nœuds, dans l'ordre alphabétique des racines.
+     */
+    List<AVLTree.Node> getAllNodes();
+
+    /**
+     * @return Toutes les racines, dans l'ordre alphabétique.
+     */
+    List<String> getAllRoots();
+
+    /**
+     * Parcourt les nœuds existants, seuls à pouvoir porter des dérivés validés.
+     * Les arbres ont tous leurs nœuds ; une implémentation à création paresseuse ne visite que
+     * ceux déjà créés.
+     */
+    default void forEachNode(Consumer<AVLTree.Node> visitor) {
+        getAllNodes().forEach(visitor);
+    }
+
+    /** Visiteur d'une racine et de son identifiant (celui de son nœud). */
+    interface RootVisitor {
+        void visit(int id, String root);
+    }
+
+    /**
+     * Parcourt les racines avec leur identifiant, dans l'ordre alphabétique.
+     * Contrairement à getAllNodes, n'oblige pas une implémentation à créer les nœuds.
+     */
+    default void forEachRoot(RootVisitor visitor) {
+        for (AVLTree.Node node : getAllNodes()) visitor.visit(node.id, node.root);
+    }
+
+    /**
+     * @return Le nombre de racines.
+     */
+    int size();
+
+    // ==========================================
+    //            STATISTIQUES D'ORDRE
+    // ==========================================
+
+    /**
+     * @param root Une racine, présente ou non.
+     * @return Le nombre de racines strictement inférieures (sa position si elle est présente).
+     */
+    int rank(String root);
+
+    /**
+     * @param k La position (à partir de 0) dans l'ordre alphabétique.
+     * @return La k-ième racine, ou null si k est hors bornes.
+     */
+    String select(int k);
+
+    /**
+     * Une page de racines, sans construire la liste complète.
+     * @param offset La position de la première racine.
+     * @param limit  Le nombre maximal de racines.
+     * @return Au plus limit racines, dans l'ordre alphabétique.
+     */
+    List<String> getRoots(int offset, int limit);
+
+    /**
+     * Racines comprises entre deux bornes incluses.
+     * @param from  La borne inférieure (null : pas de borne).
+     * @param to    La borne supérieure (null : pas de borne).
+     * @param limit Le nombre maximal de racines.
+     * @return Au plus limit racines, dans l'ordre alphabétique.
+     */
+    default List<String> getRange(String from, String to, int limit) {
+        int lo = from == null ? 0 : rank(from);
+        int hi = to == null ? size() : rank(to) + (contains(to) ? 1 : 0);
+        return getRoots(lo, Math.min(limit, Math.max(0, hi - lo)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Arbre préfixe (trie) des racines, lettre par lettre, tenu à jour à côté de l'arbre AVL.
+ * Permet la recherche par préfixe (autocomplétion) en O(longueur du préfixe + k) :
+ * chaque branche mène à au moins une racine, et les enfants sont triés par lettre,
+ * si bien que les k premières racines sont obtenues dans l'ordre lexicographique.
+ *
+ * Les insertions sont sérialisées ; les recherches sont sans verrou (chaque nœud publie
+ * ses enfants par un tableau immuable remplacé à chaque ajout).
+ */
+public class RootTrie {
+
+    private static final class Node {
+        final char letter;
+        /** La racine qui se termine sur ce nœud (null sinon) */
+        volatile String root;
+        /** Enfants triés par lettre ; tableau jamais modifié après publication */
+        volatile Node[] children = EMPTY;
+
+        Node(char letter) {
+            this.letter = letter;
+        }
+
+        Node child(char c) {
+            Node[] nodes = children;
+            int lo = 0, hi = nodes.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = nodes[mid].letter;
+                if (m < c) lo = mid + 1;
+                else if (m > c) hi = mid - 1;
+                else return nodes[mid];
+            }
+            return null;
+        }
+    }
+
+    private static final Node[] EMPTY = new Node[0];
+
+    private final Node head = new Node('\0');
+    private volatile int size;
+
+    // ==========================================
+    //            API PUBLIQUE
+    // ==========================================
+
+    /**
+     * Ajoute une racine (sans effet si elle est déjà présente).
+     * @param root La racine à indexer.
+     */
+    public synchronized void insert(String root) {
+        Node node = head;
+        for (int i = 0; i < root.length(); i++) {
+            char c = root.charAt(i);
+            Node next = node.child(c);
+            if (next == null) {
+                next = new Node(c);
+                node.children = withChild(node.children, next);
+            }
+            node = next;
+        }
+        if (node.root == null) {
+            node.root = root;
+            size++;
+        }
+    }
+
+    /**
+     * Retourne les premières racines (ordre lexicographique) commençant par un préfixe.
+     * @param prefix Le préfixe recherché (vide : toutes les racines).
+     * @param limit  Le nombre maximal de résultats.
+     * @return Au plus limit racines.
+     */
+    public List<String> search(String prefix, int limit) {
+        List<String> results = new ArrayList<>(Math.min(Math.max(limit, 0), 64));
+        if (limit <= 0) return results;
+        Node node = head;
+        for (int i = 0; i < prefix.length() && node != null; i++) node = node.child(prefix.charAt(i));
+        if (node != null) collect(node, results, limit);
+        return results;
+    }
+
+    /**
+     * @return Le nombre de racines indexées.
+     */
+    public int size() {
+        return size;
+    }
+
+    // ==========================================
+    //            PARCOURS ET INSERTION
+    // ==========================================
+
+    /**
+     * Parcours en profondeur (préordre) : une racine précède ses prolongements.
+     */
+    private void collect(Node node, List<String> results, int limit) {
+        String root = node.root;
+        if (root != null) results.add(root);
+        for (Node child : node.children) {
+            if (results.size() >= limit) return;
+            collect(child, results, limit);
+        }
+    }
+
+    /**
+     * Copie du tableau d'enfants avec le nouvel enfant inséré à sa place (ordre des lettres).
+     */
+    private static Node[] withChild(Node[] nodes, Node child) {
+        int at = 0;
+        while (at < nodes.length && nodes[at].letter < child.letter) at++;
+        Node[] next = new Node[nodes.length + 1];
+        System.arraycopy(nodes, 0, next, 0, at);
+        next[at] = child;
+        System.arraycopy(nodes, at, next, at + 1, nodes.length - at);
+        return next;
+    }
+}
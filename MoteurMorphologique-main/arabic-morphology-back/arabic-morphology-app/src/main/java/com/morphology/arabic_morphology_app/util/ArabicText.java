@@ -0,0 +1,64 @@
+package com.morphology.arabic_morphology_app.util;
+
+/**
+ * Utilitaire de normalisation des textes arabes.
+ * Permet de comparer des mots vocalisés (générés par le moteur) à des mots
+ * non vocalisés (textes courants) en retirant les signes diacritiques (Harakat)
+ * et le Tatweel.
+ */
+public class ArabicText {
+
+    private static final char TATWEEL = 'ـ';
+
+    /**
+     * Indique si un caractère est un signe diacritique arabe (Fatha, Damma, Kasra, Sukun,
+     * Shadda, Tanwin, Alif suscrit...).
+     *
+     * @param c Le caractère à tester.
+     * @return Vrai si le caractère est un diacritique.
+     */
+    public static boolean isDiacritic(char c) {
+        return (c >= 'ً' && c <= 'ٟ') || c == 'ٰ';
+    }
+
+    /**
+     * Indique si un caractère est retiré par stripDiacritics (diacritique ou Tatweel).
+     *
+     * @param c Le caractère à tester.
+     * @return Vrai si le caractère est ignoré lors de la normalisation.
+     */
+    public static boolean isIgnorable(char c) {
+        return isDiacritic(c) || c == TATWEEL;
+    }
+
+    /**
+     * Indique si un caractère fait partie d'un mot arabe (lettre, diacritique ou Tatweel).
+     *
+     * @param c Le caractère à tester.
+     * @return Vrai si le caractère appartient à un mot arabe.
+     */
+    public static boolean isWordChar(char c) {
+        return (c >= 'ء' && c <= 'ٟ') || c == 'ٰ' || (c >= 'ٱ' && c <= 'ۓ');
+    }
+
+    /**
+     * Retire les diacritiques et le Tatweel d'un mot.
+     *
+     * @param word Le mot vocalisé.
+     * @return Le squelette consonantique du mot.
+     */
+    public static String stripDiacritics(String word) {
+        StringBuilder sb = null;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            boolean drop = isIgnorable(c);
+            if (drop && sb == null) {
+                sb = new StringBuilder(word.length());
+                sb.append(word, 0, i);
+            } else if (!drop && sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? word : sb.toString();
+    }
+}
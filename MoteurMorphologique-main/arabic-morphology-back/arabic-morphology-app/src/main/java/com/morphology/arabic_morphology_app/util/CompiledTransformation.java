@@ -0,0 +1,311 @@
+package com.morphology.arabic_morphology_app.util;
+
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Forme compilée d'un groupe de transformations (ex: ajwaf_فاعِل).
+ * Les opérations "replace" consécutives sont regroupées dans un automate d'Aho-Corasick
+ * afin d'être appliquées en un seul parcours gauche-droite du mot. Un nouvel automate
+ * n'est ouvert que lorsqu'une règle pourrait interagir avec une règle précédente
+ * (motifs qui se chevauchent, ou motif recouvrant le résultat d'un remplacement antérieur),
+ * ce qui préserve la sémantique séquentielle des String.replace successifs.
+ * Les opérations "replace_final" sont appliquées comme étapes terminales.
+ */
+public final class CompiledTransformation {
+
+    private static final String REPLACE_FINAL = "replace_final";
+
+    /** Une étape élémentaire du pipeline de transformation. */
+    private interface Stage {
+        String apply(String word);
+    }
+
+    private final Stage[] stages;
+
+    // Règles d'origine (retenues) conservées pour l'analyse inverse, dans l'ordre d'exécution
+    private final String[] ruleFrom;
+    private final String[] ruleTo;
+
+    private CompiledTransformation(Stage[] stages, String[] ruleFrom, String[] ruleTo) {
+        this.stages = stages;
+        this.ruleFrom = ruleFrom;
+        this.ruleTo = ruleTo;
+    }
+
+    /**
+     * Compile la liste ordonnée des règles d'un groupe.
+     *
+     * @param rules Les règles dans leur ordre d'exécution.
+     * @return La transformation compilée.
+     */
+    public static CompiledTransformation compile(List<TransformationRule> rules) {
+        List<Stage> stages = new ArrayList<>();
+        List<String> batchFrom = new ArrayList<>();
+        List<String> batchTo = new ArrayList<>();
+        List<String> keptFrom = new ArrayList<>();
+        List<String> keptTo = new ArrayList<>();
+
+        for (TransformationRule rule : rules) {
+            String to = rule.getTo();
+            if (to == null) continue; // Règle incomplète : ignorée
+
+            if (REPLACE_FINAL.equals(rule.getType())) {
+                flush(stages, batchFrom, batchTo);
+                stages.add(new ReplaceFinalStage(to));
+                keptFrom.add(null);
+                keptTo.add(to);
+                continue;
+            }
+
+            String from = rule.getFrom();
+            if (from == null) continue; // Règle incomplète : ignorée
+            keptFrom.add(from);
+            keptTo.add(to);
+            if (from.isEmpty()) {
+                // Cas dégénéré : conserve le comportement exact de String.replace("", to)
+                flush(stages, batchFrom, batchTo);
+                stages.add(word -> word.replace(from, to));
+                continue;
+            }
+
+            if (conflictsWithBatch(from, batchFrom, batchTo)) {
+                flush(stages, batchFrom, batchTo);
+            }
+            batchFrom.add(from);
+            batchTo.add(to);
+        }
+        flush(stages, batchFrom, batchTo);
+        return new CompiledTransformation(stages.toArray(new Stage[0]),
+                keptFrom.toArray(new String[0]), keptTo.toArray(new String[0]));
+    }
+
+    /**
+     * Applique toutes les étapes de la transformation au mot.
+     *
+     * @param word Le mot construit à partir du schème.
+     * @return Le mot transformé.
+     */
+    public String apply(String word) {
+        for (Stage stage : stages) {
+            word = stage.apply(word);
+        }
+        return word;
+    }
+
+    /**
+     * Ajoute aux candidats les antécédents possibles obtenus en défaisant les règles
+     * (de la dernière à la première). Un replace_final défait laisse une lettre inconnue
+     * (SchemeTemplate.ANY_LETTER). Les candidats ne sont que des hypothèses à confirmer
+     * par une génération directe.
+     *
+     * @param candidates Ensemble des formes candidates, enrichi sur place.
+     * @param limit      Nombre maximal de candidats conservés.
+     */
+    public void expandPreimages(Set<String> candidates, int limit) {
+        for (int r = ruleTo.length - 1; r >= 0; r--) {
+            String from = ruleFrom[r];
+            String to = ruleTo[r];
+            for (String candidate : candidates.toArray(new String[0])) {
+                if (candidates.size() >= limit) return;
+                if (from == null) {
+                    if (!candidate.isEmpty() && candidate.endsWith(to)) {
+                        candidates.add(candidate.substring(0, candidate.length() - to.length()) + SchemeTemplate.ANY_LETTER);
+                    }
+                } else if (!to.isEmpty() && candidate.contains(to)) {
+                    candidates.add(candidate.replace(to, from));
+                }
+            }
+        }
+    }
+
+    // ==========================================
+    //        CONSTRUCTION DES ÉTAPES
+    // ==========================================
+
+    private static void flush(List<Stage> stages, List<String> batchFrom, List<String> batchTo) {
+        if (batchFrom.isEmpty()) return;
+        stages.add(new AhoCorasickStage(batchFrom.toArray(new String[0]), batchTo.toArray(new String[0])));
+        batchFrom.clear();
+        batchTo.clear();
+    }
+
+    /**
+     * Vérifie si une nouvelle règle peut rejoindre le lot courant sans changer le résultat
+     * par rapport à une application séquentielle.
+     */
+    private static boolean conflictsWithBatch(String from, List<String> batchFrom, List<String> batchTo) {
+        for (int i = 0; i < batchFrom.size(); i++) {
+            String previousTo = batchTo.get(i);
+            // Une suppression peut rendre contigus des caractères autrefois séparés
+            if (previousTo.isEmpty()) return true;
+            if (overlaps(batchFrom.get(i), from) || overlaps(previousTo, from)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indique si deux chaînes peuvent se superposer (inclusion, préfixe/suffixe commun).
+     */
+    static boolean overlaps(String a, String b) {
+        for (int shift = -(a.length() - 1); shift < b.length(); shift++) {
+            int start = Math.max(0, shift);
+            int end = Math.min(b.length(), shift + a.length());
+            boolean match = true;
+            for (int k = start; k < end; k++) {
+                if (b.charAt(k) != a.charAt(k - shift)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) return true;
+        }
+        return false;
+    }
+
+    // ==========================================
+    //            ÉTAPES DU PIPELINE
+    // ==========================================
+
+    /**
+     * Remplace le dernier caractère du mot (opération replace_final).
+     */
+    private static final class ReplaceFinalStage implements Stage {
+        private final String to;
+
+        ReplaceFinalStage(String to) {
+            this.to = to;
+        }
+
+        @Override
+        public String apply(String word) {
+            if (word.isEmpty()) return word;
+            return word.substring(0, word.length() - 1).concat(to);
+        }
+    }
+
+    /**
+     * Automate d'Aho-Corasick appliquant plusieurs remplacements en un seul parcours.
+     * Les motifs d'un même automate ne se chevauchent jamais, donc chaque position
+     * du mot appartient au plus à une occurrence retenue (la plus à gauche).
+     */
+    private static final class AhoCorasickStage implements Stage {
+        private final String[] to;
+        private final int[] patternLength;
+
+        // Transitions creuses : pour chaque état, caractères triés et états cibles
+        private char[][] edgeChars;
+        private int[][] edgeTargets;
+        private int[] fail;
+        private int[] output;
+        private int stateCount;
+
+        AhoCorasickStage(String[] from, String[] to) {
+            this.to = to;
+            this.patternLength = new int[from.length];
+            int maxStates = 1;
+            for (String f : from) maxStates += f.length();
+
+            edgeChars = new char[maxStates][];
+            edgeTargets = new int[maxStates][];
+            fail = new int[maxStates];
+            output = new int[maxStates];
+            Arrays.fill(output, -1);
+            stateCount = 1;
+            edgeChars[0] = new char[0];
+            edgeTargets[0] = new int[0];
+
+            for (int p = 0; p < from.length; p++) {
+                patternLength[p] = from[p].length();
+                int state = 0;
+                for (int k = 0; k < from[p].length(); k++) {
+                    char c = from[p].charAt(k);
+                    int next = next(state, c);
+                    if (next < 0) next = addEdge(state, c);
+                    state = next;
+                }
+                if (output[state] < 0) output[state] = p;
+            }
+            buildFailureLinks();
+        }
+
+        private int addEdge(int state, char c) {
+            int target = stateCount++;
+            edgeChars[target] = new char[0];
+            edgeTargets[target] = new int[0];
+
+            char[] chars = edgeChars[state];
+            int[] targets = edgeTargets[state];
+            int pos = -(Arrays.binarySearch(chars, c) + 1);
+            char[] newChars = new char[chars.length + 1];
+            int[] newTargets = new int[targets.length + 1];
+            System.arraycopy(chars, 0, newChars, 0, pos);
+            System.arraycopy(targets, 0, newTargets, 0, pos);
+            newChars[pos] = c;
+            newTargets[pos] = target;
+            System.arraycopy(chars, pos, newChars, pos + 1, chars.length - pos);
+            System.arraycopy(targets, pos, newTargets, pos + 1, targets.length - pos);
+            edgeChars[state] = newChars;
+            edgeTargets[state] = newTargets;
+            return target;
+        }
+
+        private int next(int state, char c) {
+            int idx = Arrays.binarySearch(edgeChars[state], c);
+            return idx >= 0 ? edgeTargets[state][idx] : -1;
+        }
+
+        private void buildFailureLinks() {
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : edgeTargets[0]) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                char[] chars = edgeChars[state];
+                int[] targets = edgeTargets[state];
+                for (int k = 0; k < chars.length; k++) {
+                    int child = targets[k];
+                    int f = fail[state];
+                    while (f > 0 && next(f, chars[k]) < 0) f = fail[f];
+                    int candidate = next(f, chars[k]);
+                    fail[child] = (candidate >= 0 && candidate != child) ? candidate : 0;
+                    if (output[child] < 0) output[child] = output[fail[child]];
+                    queue.add(child);
+                }
+            }
+        }
+
+        @Override
+        public String apply(String word) {
+            StringBuilder sb = null;
+            int copied = 0;   // Début du texte pas encore recopié
+            int state = 0;
+
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                int next;
+                while ((next = next(state, c)) < 0 && state > 0) state = fail[state];
+                state = Math.max(next, 0);
+
+                int p = output[state];
+                if (p < 0) continue;
+                int start = i - patternLength[p] + 1;
+                if (start < copied) continue; // Chevauche une occurrence déjà remplacée
+
+                if (sb == null) sb = new StringBuilder(word.length() + 8);
+                sb.append(word, copied, start).append(to[p]);
+                copied = i + 1;
+            }
+
+            if (sb == null) return word;
+            return sb.append(word, copied, word.length()).toString();
+        }
+    }
+}
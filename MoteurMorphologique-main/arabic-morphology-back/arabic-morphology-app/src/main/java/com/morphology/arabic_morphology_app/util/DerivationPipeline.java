@@ -0,0 +1,127 @@
+package com.morphology.arabic_morphology_app.util;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pipeline de transformations pré-résolu pour un couple (type de racine, schème).
+ * Les clés de groupes (mithal_, lafif_, naqis_, exception_...) sont résolues une seule fois
+ * à la construction : la génération n'effectue ensuite aucune concaténation de clé, et ne consulte
+ * la table d'exceptions que pour les schèmes qui en définissent.
+ */
+public final class DerivationPipeline {
+
+    /** Schème concerné par le post-traitement du Tanwin (Ism Fa'il faible). */
+    private static final String TANWIN_SCHEME = "فاعل";
+
+    private final CompiledTransformation[] stages;
+
+    /** Exceptions propres à certaines racines pour ce schème (null si aucune). */
+    private final Map<String, CompiledTransformation> exceptions;
+
+    private final boolean tanwin;
+
+    private DerivationPipeline(CompiledTransformation[] stages,
+                               Map<String, CompiledTransformation> exceptions,
+                               boolean tanwin) {
+        this.stages = stages;
+        this.exceptions = exceptions;
+        this.tanwin = tanwin;
+    }
+
+    /**
+     * Résout l'ordre d'application des groupes pour un type de racine et un schème.
+     *
+     * @param type       Le type de la racine.
+     * @param schemeName Le nom du schème.
+     * @param groups     Les groupes compilés indexés par clé (type_schème).
+     * @param exceptions Les exceptions du schème indexées par racine (peut être vide).
+     * @return Le pipeline résolu.
+     */
+    public static DerivationPipeline resolve(RootType type, String schemeName,
+                                             Map<String, CompiledTransformation> groups,
+                                             Map<String, CompiledTransformation> exceptions) {
+        List<CompiledTransformation> stages = new ArrayList<>();
+
+        // Application séquentielle des transformations selon le type de racine
+        if (type == RootType.LAFIF) {
+            addIfPresent(stages, groups.get("mithal_" + schemeName));
+            CompiledTransformation lafif = groups.get("lafif_" + schemeName);
+            if (lafif != null) {
+                stages.add(lafif);
+            } else {
+                // Repli sur les règles du Naqis si aucune règle Lafif n'est définie
+                addIfPresent(stages, groups.get("naqis_" + schemeName));
+            }
+        } else {
+            addIfPresent(stages, groups.get(type.name().toLowerCase() + "_" + schemeName));
+        }
+
+        boolean tanwin = TANWIN_SCHEME.equals(schemeName)
+                && (type == RootType.NAQIS || type == RootType.LAFIF || type == RootType.AJWAF);
+
+        return new DerivationPipeline(
+                stages.toArray(new CompiledTransformation[0]),
+                exceptions.isEmpty() ? null : Collections.unmodifiableMap(exceptions),
+                tanwin);
+    }
+
+    /**
+     * Ajoute aux candidats les formes possibles avant application du pipeline
+     * (post-traitement, exceptions puis groupes, dans l'ordre inverse).
+     *
+     * @param candidates Ensemble des formes candidates, enrichi sur place.
+     * @param limit      Nombre maximal de candidats conservés.
+     */
+    public void expandPreimages(Set<String> candidates, int limit) {
+        if (tanwin) {
+            for (String candidate : candidates.toArray(new String[0])) {
+                if (candidate.endsWith("ٍ") && candidates.size() < limit) {
+                    candidates.add(candidate.substring(0, candidate.length() - 1) + "ي");
+                }
+            }
+        }
+        if (exceptions != null) {
+            for (CompiledTransformation exception : exceptions.values()) {
+                exception.expandPreimages(candidates, limit);
+            }
+        }
+        for (int i = stages.length - 1; i >= 0; i--) {
+            stages[i].expandPreimages(candidates, limit);
+        }
+    }
+
+    private static void addIfPresent(List<CompiledTransformation> stages, CompiledTransformation t) {
+        if (t != null) stages.add(t);
+    }
+
+    /**
+     * Applique le pipeline à un mot construit à partir du gabarit du schème.
+     *
+     * @param root La racine d'origine (pour les exceptions spécifiques).
+     * @param word Le mot avant transformations.
+     * @return Le mot final.
+     */
+    public String apply(String root, String word) {
+        for (CompiledTransformation stage : stages) {
+            word = stage.apply(word);
+        }
+
+        // Gestion des exceptions spécifiques
+        if (exceptions != null) {
+            CompiledTransformation exception = exceptions.get(root);
+            if (exception != null) word = exception.apply(word);
+        }
+
+        // Post-traitement phonétique (Tanwin sur Ism Fa'il faible)
+        if (tanwin && word.endsWith("ي")) {
+            word = word.substring(0, word.length() - 1) + "ٍ";
+        }
+        return word;
+    }
+}
@@ -23,7 +23,7 @@ public class RootAnalyzer {
      * @throws IllegalArgumentException Si la racine n'est pas composée de 3 lettres.
      */
     public static RootType detectRootType(String root) {
-        if (root == null || root.length() != 3) {
+        if (!isValidRoot(root)) {
             throw new IllegalArgumentException("Racine invalide : une racine arabe doit comporter exactement 3 lettres.");
         }
 
@@ -51,6 +51,16 @@ public class RootAnalyzer {
         return RootType.REGULAR;
     }
 
+    /**
+     * Vérifie qu'une chaîne peut être classée par detectRootType.
+     *
+     * @param root La chaîne à vérifier.
+     * @return Vrai si la chaîne comporte exactement 3 lettres.
+     */
+    public static boolean isValidRoot(String root) {
+        return root != null && root.length() == 3;
+    }
+
     /**
      * Extrait les lettres de la racine sous forme de tableau de caractères
      * en appliquant des correctifs heuristiques pour les lettres de transformation.
@@ -0,0 +1,150 @@
+package com.morphology.arabic_morphology_app.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forme compilée d'une règle de schème (ex: مَ{1}ْ{2}ُو{3}).
+ * La règle est découpée une seule fois en segments littéraux et en positions
+ * de lettres radicales ({1}, {2}, {3}), ce qui permet de construire chaque mot
+ * dans un unique tampon de caractères pré-dimensionné.
+ */
+public final class SchemeTemplate {
+
+    /** Nombre de lettres radicales supportées par les règles ({1} à {3}). */
+    private static final int ROOT_LETTERS = 3;
+
+    /**
+     * Caractère joker désignant une lettre radicale inconnue lors de l'analyse inverse
+     * (ex: lettre finale effacée par un replace_final). Ne correspond qu'à une position radicale.
+     */
+    public static final char ANY_LETTER = '\uFFFF';
+
+    private final String rule;
+
+    /** Segments littéraux : segments[i] précède slots[i], le dernier segment termine le mot. */
+    private final char[][] segments;
+
+    /** Indices (0 à 2) des lettres radicales à insérer entre les segments. */
+    private final int[] slots;
+
+    /** Longueur exacte du mot produit. */
+    private final int length;
+
+    private SchemeTemplate(String rule, char[][] segments, int[] slots, int length) {
+        this.rule = rule;
+        this.segments = segments;
+        this.slots = slots;
+        this.length = length;
+    }
+
+    /**
+     * Compile une règle de schème en gabarit.
+     *
+     * @param rule La règle brute (ex: {1}ا{2}ِ{3}).
+     * @return Le gabarit compilé.
+     */
+    public static SchemeTemplate compile(String rule) {
+        List<char[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = 0;
+
+        int i = 0;
+        while (i < rule.length()) {
+            int slot = slotAt(rule, i);
+            if (slot >= 0) {
+                segments.add(literal.toString().toCharArray());
+                length += literal.length() + 1;
+                literal.setLength(0);
+                slots.add(slot);
+                i += 3;
+            } else {
+                literal.append(rule.charAt(i++));
+            }
+        }
+        segments.add(literal.toString().toCharArray());
+        length += literal.length();
+
+        int[] slotArray = new int[slots.size()];
+        for (int k = 0; k < slotArray.length; k++) slotArray[k] = slots.get(k);
+        return new SchemeTemplate(rule, segments.toArray(new char[0][]), slotArray, length);
+    }
+
+    /**
+     * Retourne l'indice de lettre radicale si un placeholder {1}, {2} ou {3} commence à la position donnée.
+     */
+    private static int slotAt(String rule, int i) {
+        if (i + 2 >= rule.length() || rule.charAt(i) != '{' || rule.charAt(i + 2) != '}') return -1;
+        int digit = rule.charAt(i + 1) - '1';
+        return digit >= 0 && digit < ROOT_LETTERS ? digit : -1;
+    }
+
+    // ==========================================
+    //              CONSTRUCTION
+    // ==========================================
+
+    /**
+     * Construit le mot en insérant les lettres radicales dans le gabarit.
+     *
+     * @param letters Les lettres originales de la racine (voir RootAnalyzer.extractOriginalLetters).
+     * @return Le mot construit, avant transformations.
+     */
+    public String fill(char[] letters) {
+        char[] buffer = new char[length];
+        int pos = 0;
+        for (int k = 0; k < slots.length; k++) {
+            char[] segment = segments[k];
+            System.arraycopy(segment, 0, buffer, pos, segment.length);
+            pos += segment.length;
+            buffer[pos++] = letters[slots[k]];
+        }
+        char[] last = segments[slots.length];
+        System.arraycopy(last, 0, buffer, pos, last.length);
+        return new String(buffer);
+    }
+
+    // ==========================================
+    //            ANALYSE INVERSE
+    // ==========================================
+
+    /**
+     * Aligne un mot sur le gabarit et en extrait les lettres radicales.
+     * Les segments littéraux doivent correspondre exactement ; chaque position radicale
+     * consomme un caractère. Une lettre répétée dans la règle doit être cohérente.
+     *
+     * @param word Le mot (avant transformations) à aligner, pouvant contenir ANY_LETTER.
+     * @return Les 3 lettres radicales (ANY_LETTER si inconnue), ou null si le mot ne suit pas le gabarit.
+     */
+    public char[] match(String word) {
+        if (word.length() != length) return null;
+        char[] letters = {ANY_LETTER, ANY_LETTER, ANY_LETTER};
+        int pos = 0;
+        for (int k = 0; k < slots.length; k++) {
+            if (!regionMatches(word, pos, segments[k])) return null;
+            pos += segments[k].length;
+            char c = word.charAt(pos++);
+            int slot = slots[k];
+            if (letters[slot] == ANY_LETTER) {
+                letters[slot] = c;
+            } else if (c != ANY_LETTER && c != letters[slot]) {
+                return null;
+            }
+        }
+        return regionMatches(word, pos, segments[slots.length]) ? letters : null;
+    }
+
+    private static boolean regionMatches(String word, int offset, char[] segment) {
+        for (int i = 0; i < segment.length; i++) {
+            if (word.charAt(offset + i) != segment[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return La règle brute à partir de laquelle le gabarit a été compilé.
+     */
+    public String getRule() {
+        return rule;
+    }
+}
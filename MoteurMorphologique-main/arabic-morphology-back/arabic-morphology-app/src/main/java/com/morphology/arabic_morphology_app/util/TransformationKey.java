@@ -0,0 +1,92 @@
+package com.morphology.arabic_morphology_app.util;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Décomposition d'une clé de groupe de transformations selon la convention de transformations.txt :
+ * <ul>
+ *   <li>type_schème (ex: ajwaf_فاعِل) : s'applique aux racines du type indiqué ;</li>
+ *   <li>exception_racine_schème (ex: exception_قول_فاعِل) : s'applique à une seule racine.</li>
+ * </ul>
+ * Permet de savoir quelles dérivations sont concernées par la modification d'un groupe.
+ */
+public final class TransformationKey {
+
+    private static final String EXCEPTION_PREFIX = "exception_";
+
+    private final String scheme;
+    private final String exceptionRoot;
+    private final Set<RootType> affectedTypes;
+
+    private TransformationKey(String scheme, String exceptionRoot, Set<RootType> affectedTypes) {
+        this.scheme = scheme;
+        this.exceptionRoot = exceptionRoot;
+        this.affectedTypes = affectedTypes;
+    }
+
+    /**
+     * Analyse une clé de groupe.
+     *
+     * @param key La clé (ex: naqis_اِفْتَعَل).
+     * @return La clé décomposée, ou null si elle ne suit pas la convention.
+     */
+    public static TransformationKey parse(String key) {
+        if (key == null) return null;
+
+        if (key.startsWith(EXCEPTION_PREFIX)) {
+            String rest = key.substring(EXCEPTION_PREFIX.length());
+            int sep = rest.indexOf('_');
+            if (sep <= 0) return null;
+            return new TransformationKey(rest.substring(sep + 1), rest.substring(0, sep), Collections.emptySet());
+        }
+
+        int sep = key.indexOf('_');
+        if (sep <= 0) return null;
+        String prefix = key.substring(0, sep);
+        Set<RootType> types = EnumSet.noneOf(RootType.class);
+        for (RootType type : RootType.values()) {
+            if (type.name().toLowerCase().equals(prefix)) types.add(type);
+        }
+        // Les racines Lafif héritent des règles Mithal et (par repli) Naqis
+        if (types.contains(RootType.MITHAL) || types.contains(RootType.NAQIS)) {
+            types.add(RootType.LAFIF);
+        }
+        return new TransformationKey(key.substring(sep + 1), null, Collections.unmodifiableSet(types));
+    }
+
+    // ==========================================
+    //              ACCESSEURS
+    // ==========================================
+
+    /**
+     * @return Le nom du schème concerné.
+     */
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * @return La racine visée par une exception, ou null pour un groupe par type.
+     */
+    public String getExceptionRoot() {
+        return exceptionRoot;
+    }
+
+    /**
+     * @return Vrai si la clé désigne une exception propre à une racine.
+     */
+    public boolean isException() {
+        return exceptionRoot != null;
+    }
+
+    /**
+     * @return Les types de racines dont la dérivation dépend de ce groupe.
+     */
+    public Set<RootType> getAffectedTypes() {
+        return affectedTypes;
+    }
+}
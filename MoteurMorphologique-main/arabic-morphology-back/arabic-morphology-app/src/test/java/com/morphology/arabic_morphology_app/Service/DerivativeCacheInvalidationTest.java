@@ -0,0 +1,153 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+import com.morphology.arabic_morphology_app.storage.DerivativeCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidation versionnée du cache des dérivés : après chaque modification des règles, le service
+ * avec cache doit générer exactement ce que génère un service sans cache ayant reçu les mêmes
+ * modifications. Aucun mot calculé avec des règles remplacées ne doit être servi.
+ */
+class DerivativeCacheInvalidationTest {
+
+	@Test
+	void noStaleWordAfterRuleChanges() {
+		MorphologyServiceImpl cached = service(10000);
+		MorphologyServiceImpl reference = service(0);
+		assertSameWords(cached, reference);
+		assertSameWords(cached, reference); // Deuxième passage servi par le cache
+		assertTrue(cached.getCacheStats().getHits() > 0, "le cache est utilisé");
+
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			service.updateScheme("فاعِل", "{1}َا{2}ِ{3}");
+		}
+		assertSameWords(cached, reference);
+
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			service.saveTransformationGroup(group("ajwaf_فاعِل", replace("َاو", "َائ"), replace("َاي", "َائ")));
+		}
+		assertSameWords(cached, reference);
+
+		// Exception : une seule cellule (racine, schème), nouvelle puis modifiée
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			service.saveTransformationGroup(group("exception_كتب_مَفْعُول", replace("كْتُو", "كْتُوو")));
+		}
+		assertSameWords(cached, reference);
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			service.saveTransformationGroup(group("exception_كتب_مَفْعُول", replace("كْتُو", "كَتُو")));
+		}
+		assertSameWords(cached, reference);
+
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			assertTrue(service.deleteTransformationGroup("naqis_تَفْعِيل"));
+			assertTrue(service.deleteTransformationGroup("exception_كتب_مَفْعُول"));
+		}
+		assertSameWords(cached, reference);
+
+		// Groupe de clé non structurée : vidage complet du cache
+		for (MorphologyServiceImpl service : List.of(cached, reference)) {
+			service.saveTransformationGroup(group("divers", replace("ا", "ا")));
+		}
+		assertSameWords(cached, reference);
+	}
+
+	/**
+	 * Une écriture intercalée entre le calcul d'un mot et son inscription en cache (avant la lecture
+	 * de l'estampille, puis entre cette lecture et l'inscription) ne doit pas laisser en cache
+	 * le mot calculé avec les règles remplacées.
+	 */
+	@Test
+	void wordComputedWithReplacedRulesIsNotCached() {
+		List<Consumer<MorphologyServiceImpl>> writes = List.of(
+				s -> s.saveTransformationGroup(group("naqis_مَفْعُول", replace("ُوو", "ُو"))),
+				s -> s.saveTransformationGroup(group("exception_دعو_مَفْعُول", replace("مَدْ", "مُدْ"))),
+				s -> s.updateScheme("مَفْعُول", "مُ{1}ْ{2}ُو{3}"));
+		for (Consumer<MorphologyServiceImpl> write : writes) {
+			MorphologyServiceImpl reference = service(0);
+			write.accept(reference);
+			for (boolean beforeStamp : new boolean[]{true, false}) {
+				MorphologyServiceImpl cached = service(10000);
+				ReflectionTestUtils.setField(cached, "derivativeCache", new InterleavedCache(cached, write, beforeStamp));
+				String old = cached.generate("دعو", "مَفْعُول");
+				assertEquals(reference.generate("دعو", "مَفْعُول"), cached.generate("دعو", "مَفْعُول"),
+						(beforeStamp ? "écriture avant l'estampille" : "écriture avant l'inscription") + ", ancien mot " + old);
+			}
+		}
+	}
+
+	/**
+	 * Cache qui exécute une écriture au premier calcul, pendant la génération elle-même.
+	 */
+	private static final class InterleavedCache extends DerivativeCache {
+		private final MorphologyServiceImpl service;
+		private final Consumer<MorphologyServiceImpl> write;
+		private final boolean beforeStamp;
+		private boolean done;
+
+		InterleavedCache(MorphologyServiceImpl service, Consumer<MorphologyServiceImpl> write, boolean beforeStamp) {
+			super(10000);
+			this.service = service;
+			this.write = write;
+			this.beforeStamp = beforeStamp;
+		}
+
+		@Override
+		public long stamp(int rootId, RootType type, int schemeId) {
+			if (beforeStamp) writeOnce();
+			return super.stamp(rootId, type, schemeId);
+		}
+
+		@Override
+		public void put(int rootId, RootType type, int schemeId, String word, long stamp) {
+			if (!beforeStamp) writeOnce();
+			super.put(rootId, type, schemeId, word, stamp);
+		}
+
+		private void writeOnce() {
+			if (done) return;
+			done = true;
+			write.accept(service);
+		}
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static MorphologyServiceImpl service(int cacheSize) {
+		MorphologyServiceImpl service = new MorphologyServiceImpl();
+		ReflectionTestUtils.setField(service, "cacheMaxSize", cacheSize);
+		service.init();
+		return service;
+	}
+
+	private static void assertSameWords(MorphologyServiceImpl cached, MorphologyServiceImpl reference) {
+		assertEquals(reference.getSchemesList(), cached.getSchemesList());
+		for (String root : reference.getRootsList()) {
+			for (String scheme : reference.getSchemesList()) {
+				assertEquals(reference.generate(root, scheme), cached.generate(root, scheme), root + " × " + scheme);
+			}
+		}
+	}
+
+	private static TransformationGroup group(String key, TransformationRule... rules) {
+		TransformationGroup group = new TransformationGroup();
+		group.setKey(key);
+		group.getRules().addAll(List.of(rules));
+		return group;
+	}
+
+	private static TransformationRule replace(String from, String to) {
+		return new TransformationRule("replace", from, to, 0);
+	}
+}
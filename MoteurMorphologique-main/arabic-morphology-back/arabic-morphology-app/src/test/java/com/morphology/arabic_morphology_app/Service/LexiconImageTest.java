@@ -0,0 +1,138 @@
+package com.morphology.arabic_morphology_app.Service;
+
+import com.morphology.arabic_morphology_app.model.TransformationGroup;
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Relecture de l'image binaire du lexique : le contenu écrit est relu à l'identique, et une image
+ * périmée, tronquée, d'un autre format ou corrompue est ignorée (retour aux fichiers texte).
+ */
+class LexiconImageTest {
+
+	private static final long STAMP = 0x1234_5678_9ABCL;
+
+	@Test
+	void roundTripPreservesContents() throws IOException {
+		Path file = Files.createTempDirectory("image").resolve("lexicon.img");
+		LexiconImage.Contents written = contents();
+		LexiconImage.write(file, STAMP, written);
+
+		LexiconImage.Contents read = LexiconImage.read(file, STAMP);
+		assertNotNull(read);
+		assertEquals(written.roots, read.roots);
+		assertEquals(written.schemes.size(), read.schemes.size());
+		for (int i = 0; i < written.schemes.size(); i++) {
+			assertEquals(Arrays.asList(written.schemes.get(i)), Arrays.asList(read.schemes.get(i)));
+		}
+		assertEquals(written.groups, read.groups); // Égalité des groupes : clés seules
+		for (int i = 0; i < written.groups.size(); i++) {
+			TransformationGroup expected = written.groups.get(i);
+			TransformationGroup actual = read.groups.get(i);
+			assertEquals(expected.getComment(), actual.getComment(), expected.getKey());
+			assertEquals(expected.getRules(), actual.getRules(), expected.getKey());
+		}
+
+		// Lexique vide : aucune table, aucune chaîne
+		LexiconImage.write(file, STAMP, new LexiconImage.Contents(List.of(), List.of(), List.of()));
+		LexiconImage.Contents empty = LexiconImage.read(file, STAMP);
+		assertNotNull(empty);
+		assertTrue(empty.roots.isEmpty() && empty.schemes.isEmpty() && empty.groups.isEmpty());
+	}
+
+	@Test
+	void staleTruncatedUnknownOrCorruptImageIsIgnored() throws IOException {
+		Path file = Files.createTempDirectory("image").resolve("lexicon.img");
+		assertNull(LexiconImage.read(file, STAMP), "absente");
+
+		LexiconImage.write(file, STAMP, contents());
+		byte[] valid = Files.readAllBytes(file);
+		assertNull(LexiconImage.read(file, STAMP + 1), "périmée");
+
+		Files.write(file, Arrays.copyOf(valid, 47));
+		assertNull(LexiconImage.read(file, STAMP), "en-tête tronqué");
+		Files.write(file, Arrays.copyOf(valid, valid.length - 3));
+		assertNull(LexiconImage.read(file, STAMP), "corps tronqué");
+
+		byte[] magic = valid.clone();
+		magic[0] ^= 1;
+		Files.write(file, magic);
+		assertNull(LexiconImage.read(file, STAMP), "autre magic");
+		byte[] version = valid.clone();
+		version[4]++;
+		Files.write(file, version);
+		assertNull(LexiconImage.read(file, STAMP), "autre version");
+
+		// Un octet modifié dans les tables, puis dans le réservoir de chaînes
+		for (int at : new int[]{48 + 10, valid.length - 1}) {
+			byte[] corrupt = valid.clone();
+			corrupt[at] ^= 0x20;
+			Files.write(file, corrupt);
+			assertNull(LexiconImage.read(file, STAMP), "corrompue à l'octet " + at);
+		}
+
+		Files.write(file, valid);
+		assertNotNull(LexiconImage.read(file, STAMP), "image intacte");
+	}
+
+	@Test
+	void sourceStampChangesWhenDataFilesChange() throws IOException {
+		Path dir = Files.createTempDirectory("data");
+		try (LexiconStore store = new LexiconStore(dir)) {
+			long classpath = store.sourceStamp();
+			assertEquals(classpath, store.sourceStamp(), "stable tant que rien ne change");
+
+			Path roots = dir.resolve(LexiconStore.ROOTS_FILE);
+			Files.write(roots, "كتب\n".getBytes(StandardCharsets.UTF_8));
+			long copied = store.sourceStamp();
+			assertNotEquals(classpath, copied, "fichier du répertoire à la place de la ressource");
+
+			Files.write(roots, "كتب\nدرس\n".getBytes(StandardCharsets.UTF_8));
+			assertNotEquals(copied, store.sourceStamp(), "fichier modifié");
+
+			// Image écrite sous l'ancienne empreinte : ignorée après la modification
+			store.saveImage(copied, contents());
+			assertNull(store.loadImage(store.sourceStamp()));
+			assertNotNull(store.loadImage(copied));
+		}
+		try (LexiconStore store = new LexiconStore(null)) {
+			assertEquals(0, store.sourceStamp());
+			assertNull(store.loadImage(0), "pas d'image sans répertoire de données");
+		}
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	/**
+	 * Chaînes partagées entre tables (réservoir dédupliqué), valeurs absentes et groupe sans règle.
+	 */
+	private static LexiconImage.Contents contents() {
+		TransformationGroup ajwaf = new TransformationGroup("ajwaf_فاعِل");
+		ajwaf.setComment("و/ي médian → ئ");
+		ajwaf.getRules().add(new TransformationRule("replace", "َاو", "َائ", 0));
+		ajwaf.getRules().add(new TransformationRule("replace", "َاي", "َائ", 1));
+		TransformationGroup naqis = new TransformationGroup("naqis_فاعِل");
+		naqis.getRules().add(new TransformationRule("replace_final", null, "ٍ", 2));
+		TransformationGroup empty = new TransformationGroup("exception_كتب_فاعِل");
+
+		return new LexiconImage.Contents(
+				List.of("بيع", "درس", "قول", "كتب"),
+				List.of(new String[]{"فاعِل", "{1}َا{2}ِ{3}"}, new String[]{"مَفْعُول", "مَ{1}ْ{2}ُو{3}"}),
+				List.of(ajwaf, naqis, empty));
+	}
+}
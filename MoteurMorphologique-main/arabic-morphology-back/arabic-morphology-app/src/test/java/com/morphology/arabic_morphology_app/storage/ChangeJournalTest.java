@@ -0,0 +1,65 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Relecture du journal après une écriture interrompue : seule la fin incomplète est écartée.
+ */
+class ChangeJournalTest {
+
+	@Test
+	void replayStopsAtTruncatedLastLine() throws IOException {
+		Path file = Files.createTempDirectory("journal").resolve("changes.journal");
+		try (ChangeJournal journal = ChangeJournal.open(file)) {
+			journal.append(ChangeJournal.Op.SCHEME_PUT, "فاعِل", "1ا2ِ3");
+			journal.append(ChangeJournal.Op.GROUP_PUT, "ajwaf_فاعِل", "replace=و>ئ", "ligne 1\tsuite");
+			journal.append(ChangeJournal.Op.SCHEME_DELETE, "مَفْعُول");
+		}
+		long validSize = Files.size(file);
+
+		// Écriture interrompue : la dernière ligne n'a ni fin ni CRC cohérent
+		byte[] partial = "1234abcd\tSCHEME_PUT\tتَفْ".getBytes(StandardCharsets.UTF_8);
+		Files.write(file, partial, StandardOpenOption.APPEND);
+
+		try (ChangeJournal journal = ChangeJournal.open(file)) {
+			List<ChangeJournal.Entry> entries = journal.replay();
+			assertEquals(3, entries.size());
+			assertEquals(ChangeJournal.Op.SCHEME_PUT, entries.get(0).op);
+			assertEquals("1ا2ِ3", entries.get(0).fields[1]);
+			assertEquals("ligne 1\tsuite", entries.get(1).fields[2]);
+			assertEquals(ChangeJournal.Op.SCHEME_DELETE, entries.get(2).op);
+			assertEquals(validSize, Files.size(file), "la fin corrompue est tronquée");
+
+			// Les ajouts suivants reprennent après le dernier enregistrement valide
+			journal.append(ChangeJournal.Op.GROUP_DELETE, "ajwaf_فاعِل");
+		}
+		try (ChangeJournal journal = ChangeJournal.open(file)) {
+			List<ChangeJournal.Entry> entries = journal.replay();
+			assertEquals(4, entries.size());
+			assertEquals(ChangeJournal.Op.GROUP_DELETE, entries.get(3).op);
+		}
+	}
+
+	@Test
+	void replayStopsAtLineWithBadChecksum() throws IOException {
+		Path file = Files.createTempDirectory("journal").resolve("changes.journal");
+		try (ChangeJournal journal = ChangeJournal.open(file)) {
+			journal.append(ChangeJournal.Op.SCHEME_PUT, "فاعِل", "1ا2ِ3");
+		}
+		Files.write(file, "0\tSCHEME_DELETE\tفاعِل\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+		try (ChangeJournal journal = ChangeJournal.open(file)) {
+			assertEquals(1, journal.replay().size());
+			assertEquals(1, journal.size());
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Les lectures doivent rester exactes pendant le redimensionnement incrémental, lorsque les
+ * clés sont réparties entre l'ancienne table (compartiments non migrés) et la nouvelle.
+ */
+class ConcurrentManualHashTableTest {
+
+	@Test
+	void lookupsStayCorrectAcrossIncrementalResize() {
+		ConcurrentManualHashTable table = new ConcurrentManualHashTable(4);
+		Map<String, String> expected = new HashMap<>();
+		Random random = new Random(7);
+
+		for (int i = 0; i < 5000; i++) {
+			String key = "k" + random.nextInt(1500);
+			int op = random.nextInt(10);
+			if (op < 6) {
+				table.put(key, "v" + i);
+				expected.put(key, "v" + i);
+			} else if (op < 8) {
+				assertEquals(expected.remove(key), table.remove(key), "remove " + key);
+			} else {
+				assertEquals(expected.get(key), table.get(key), "get " + key);
+			}
+			// Toutes les clés, à chaque étape de la migration
+			if (i % 50 == 0) {
+				for (Map.Entry<String, String> e : expected.entrySet()) {
+					assertEquals(e.getValue(), table.get(e.getKey()), "clé " + e.getKey() + " à l'étape " + i);
+				}
+				assertEquals(expected.size(), table.size());
+				assertEquals(expected.size(), table.entries().size());
+			}
+		}
+		assertTrue(table.capacity() > 4, "la table a été agrandie");
+	}
+
+	@Test
+	void readersNeverMissKeysWhileWritersResize() throws InterruptedException {
+		ConcurrentManualHashTable table = new ConcurrentManualHashTable(2);
+		for (int i = 0; i < 50; i++) table.put("stable" + i, "s" + i);
+
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<String> failure = new AtomicReference<>();
+		Thread[] readers = new Thread[4];
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				while (!done.get() && failure.get() == null) {
+					for (int i = 0; i < 50; i++) {
+						String value = table.get("stable" + i);
+						if (!("s" + i).equals(value)) failure.compareAndSet(null, "stable" + i + " -> " + value);
+					}
+					if (table.get("absent") != null) failure.compareAndSet(null, "clé absente trouvée");
+				}
+			});
+			readers[r].start();
+		}
+
+		Thread[] writers = new Thread[2];
+		for (int w = 0; w < writers.length; w++) {
+			int id = w;
+			writers[w] = new Thread(() -> {
+				for (int i = 0; i < 20000; i++) {
+					table.put("w" + id + "_" + i, "x");
+					if (i % 3 == 0) table.remove("w" + id + "_" + (i / 2));
+				}
+			});
+			writers[w].start();
+		}
+		for (Thread writer : writers) writer.join();
+		done.set(true);
+		for (Thread reader : readers) reader.join();
+
+		assertNull(failure.get());
+		for (int i = 0; i < 50; i++) assertEquals("s" + i, table.get("stable" + i));
+	}
+}
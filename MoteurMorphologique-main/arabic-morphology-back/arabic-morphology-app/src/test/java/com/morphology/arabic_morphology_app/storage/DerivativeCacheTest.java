@@ -0,0 +1,80 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Estampilles du cache : un mot inscrit sous une estampille lue avant une invalidation
+ * n'est jamais servi, et chaque invalidation ne périme que sa portée.
+ */
+class DerivativeCacheTest {
+
+	private static final int ROOT = 7, OTHER_ROOT = 8, SCHEME = 2, OTHER_SCHEME = 3;
+
+	@Test
+	void putWithStampReadBeforeInvalidationIsNeverServed() {
+		for (int kind = 0; kind < 4; kind++) {
+			DerivativeCache cache = new DerivativeCache(100);
+			long stamp = cache.stamp(ROOT, RootType.NAQIS, SCHEME);
+			switch (kind) {
+				case 0 -> cache.invalidate(RootType.NAQIS, SCHEME);
+				case 1 -> cache.invalidateScheme(SCHEME);
+				case 2 -> cache.invalidate(ROOT, SCHEME);
+				default -> cache.clear();
+			}
+			cache.put(ROOT, RootType.NAQIS, SCHEME, "périmé", stamp);
+			assertNull(cache.get(ROOT, SCHEME), "invalidation " + kind);
+
+			cache.put(ROOT, RootType.NAQIS, SCHEME, "frais", cache.stamp(ROOT, RootType.NAQIS, SCHEME));
+			assertEquals("frais", cache.get(ROOT, SCHEME), "invalidation " + kind);
+		}
+	}
+
+	@Test
+	void invalidationOnlyAffectsItsScope() {
+		DerivativeCache cache = new DerivativeCache(100);
+		put(cache, ROOT, RootType.NAQIS, SCHEME);
+		put(cache, OTHER_ROOT, RootType.NAQIS, SCHEME);
+		put(cache, OTHER_ROOT + 1, RootType.AJWAF, SCHEME);
+		put(cache, ROOT, RootType.NAQIS, OTHER_SCHEME);
+
+		// Cellule d'exception : seule la racine concernée
+		cache.invalidate(ROOT, SCHEME);
+		assertNull(cache.get(ROOT, SCHEME));
+		assertEquals("w", cache.get(OTHER_ROOT, SCHEME));
+
+		// Groupe type_schème : les autres types et schèmes restent valides
+		cache.invalidate(RootType.NAQIS, SCHEME);
+		assertNull(cache.get(OTHER_ROOT, SCHEME));
+		assertEquals("w", cache.get(OTHER_ROOT + 1, SCHEME));
+		assertEquals("w", cache.get(ROOT, OTHER_SCHEME));
+
+		// Schème entier : tous les types, pas les autres schèmes
+		cache.invalidateScheme(SCHEME);
+		assertNull(cache.get(OTHER_ROOT + 1, SCHEME));
+		assertEquals("w", cache.get(ROOT, OTHER_SCHEME));
+
+		cache.clear();
+		assertNull(cache.get(ROOT, OTHER_SCHEME));
+	}
+
+	@Test
+	void sizeStaysBoundedAndEvictionsAreCounted() {
+		DerivativeCache cache = new DerivativeCache(32);
+		for (int root = 0; root < 1000; root++) put(cache, root, RootType.REGULAR, SCHEME);
+		assertTrue(cache.size() <= 32, "taille " + cache.size());
+		assertEquals(1000 - cache.size(), cache.getEvictions());
+
+		DerivativeCache disabled = new DerivativeCache(0);
+		put(disabled, ROOT, RootType.REGULAR, SCHEME);
+		assertNull(disabled.get(ROOT, SCHEME));
+	}
+
+	private static void put(DerivativeCache cache, int root, RootType type, int scheme) {
+		cache.put(root, type, scheme, "w", cache.stamp(root, type, scheme));
+	}
+}
@@ -0,0 +1,113 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fichier des fréquences : les compteurs survivent à la fermeture et à la réouverture,
+ * y compris au-delà du premier bloc, et un fichier invalide est recréé vide.
+ */
+class FrequencyStoreTest {
+
+	private static final int KEYS = 2 * FrequencyStore.BLOCK_RECORDS + 100; // Trois blocs
+
+	@Test
+	void countersSurviveReopenAcrossBlocks() throws IOException, InterruptedException {
+		Path file = Files.createTempDirectory("frequences").resolve("frequencies.bin");
+		Map<String, Long> expected = new HashMap<>();
+		try (FrequencyStore store = FrequencyStore.open(file)) {
+			for (int i = 0; i < KEYS; i++) {
+				store.add(root(i), "فاعِل", word(i), i + 1);
+				expected.put(root(i) + "|فاعِل|" + word(i), (long) i + 1);
+			}
+			// Additions concurrentes sur des enregistrements existants, répartis dans les blocs
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				threads[t] = new Thread(() -> {
+					for (int i = 0; i < KEYS; i += 7) store.add(root(i), "فاعِل", word(i), 1);
+				});
+				threads[t].start();
+			}
+			for (Thread thread : threads) thread.join();
+			for (int i = 0; i < KEYS; i += 7) expected.merge(root(i) + "|فاعِل|" + word(i), 4L, Long::sum);
+			assertEquals(expected, contents(store));
+		}
+		// Enregistrements de 200 octets : le troisième bloc a été ajouté
+		assertTrue(Files.size(file) > 2L * FrequencyStore.BLOCK_RECORDS * 200, "fichier agrandi par blocs");
+
+		try (FrequencyStore store = FrequencyStore.open(file)) {
+			assertEquals(expected, contents(store));
+			// Un mot déjà compté garde son schème d'origine ; un nouveau mot prolonge le dernier bloc
+			store.add(root(0), "مَفْعُول", word(0), 10);
+			store.add("كتب", "مَفْعُول", "مَكْتُوب", 3);
+			expected.merge(root(0) + "|فاعِل|" + word(0), 10L, Long::sum);
+			expected.put("كتب|مَفْعُول|مَكْتُوب", 3L);
+		}
+		try (FrequencyStore store = FrequencyStore.open(file)) {
+			assertEquals(expected, contents(store));
+		}
+	}
+
+	@Test
+	void invalidFilesAreRecreated() throws IOException {
+		Path dir = Files.createTempDirectory("frequences");
+
+		Path wrongMagic = dir.resolve("magic.bin");
+		ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0x12345678).putInt(2).putInt(3);
+		Files.write(wrongMagic, header.array());
+
+		Path shortFile = dir.resolve("short.bin");
+		Files.write(shortFile, "MFRQ".getBytes(StandardCharsets.US_ASCII));
+
+		// En-tête valide, mais les enregistrements annoncés dépassent la fin du fichier
+		Path truncated = dir.resolve("truncated.bin");
+		try (FrequencyStore store = FrequencyStore.open(truncated)) {
+			for (int i = 0; i < 10; i++) store.add(root(i), "فاعِل", word(i), 1);
+		}
+		try (FileChannel channel = FileChannel.open(truncated, StandardOpenOption.WRITE)) {
+			channel.truncate(1000);
+		}
+
+		for (Path file : new Path[]{wrongMagic, shortFile, truncated}) {
+			try (FrequencyStore store = FrequencyStore.open(file)) {
+				assertEquals(Map.of(), contents(store), file.getFileName().toString());
+				store.add("كتب", "فاعِل", "كاتِب", 2);
+			}
+			try (FrequencyStore store = FrequencyStore.open(file)) {
+				assertEquals(Map.of("كتب|فاعِل|كاتِب", 2L), contents(store), file.getFileName().toString());
+			}
+		}
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static Map<String, Long> contents(FrequencyStore store) {
+		Map<String, Long> contents = new HashMap<>();
+		store.forEach((root, scheme, word, count) -> contents.put(root + "|" + scheme + "|" + word, count));
+		return contents;
+	}
+
+	private static String root(int i) {
+		return "ج" + (i % 97);
+	}
+
+	private static String word(int i) {
+		return "مُشْتَقّ" + i;
+	}
+}
@@ -0,0 +1,93 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bornes de Space-Saving après fusion des segments : le compte affiché majore le compte réel
+ * d'au plus error, et tout élément de fréquence supérieure à total / capacité est suivi.
+ */
+class HeavyHittersTest {
+
+	private static final int CAPACITY = 16;
+
+	@Test
+	void countAndErrorBoundsHoldAcrossSegments() throws InterruptedException {
+		HeavyHitters hitters = new HeavyHitters(CAPACITY, 4);
+		List<Map<String, Long>> exact = new ArrayList<>();
+		for (int t = 0; t < 6; t++) exact.add(new HashMap<>());
+		Thread[] threads = new Thread[exact.size()];
+		for (int t = 0; t < threads.length; t++) {
+			int id = t;
+			// Chaque thread alimente le segment qui lui est attribué, avec son propre flux
+			threads[t] = new Thread(() -> {
+				Random random = new Random(id);
+				for (int i = 0; i < 20000; i++) {
+					String item = zipf(random, id);
+					long weight = 1 + random.nextInt(3);
+					hitters.add(item, weight);
+					exact.get(id).merge(item, weight, Long::sum);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) thread.join();
+
+		Map<String, Long> truth = new HashMap<>();
+		for (Map<String, Long> counts : exact) counts.forEach((item, count) -> truth.merge(item, count, Long::sum));
+		long total = truth.values().stream().mapToLong(Long::longValue).sum();
+
+		List<HeavyHitters.Entry> top = hitters.top(Integer.MAX_VALUE);
+		Map<String, HeavyHitters.Entry> reported = new HashMap<>();
+		for (HeavyHitters.Entry entry : top) {
+			long real = truth.getOrDefault(entry.item, 0L);
+			assertTrue(entry.count >= real, entry.item + " : compte " + entry.count + " < réel " + real);
+			assertTrue(entry.count - entry.error <= real, entry.item + " : erreur " + entry.error + " trop faible");
+			reported.put(entry.item, entry);
+		}
+		for (Map.Entry<String, Long> e : truth.entrySet()) {
+			if (e.getValue() > total / CAPACITY) {
+				assertTrue(reported.containsKey(e.getKey()), e.getKey() + " (" + e.getValue() + ") non suivi");
+			}
+		}
+		for (int i = 1; i < top.size(); i++) assertTrue(top.get(i - 1).count >= top.get(i).count);
+	}
+
+	@Test
+	void exactWhileUnderCapacity() {
+		HeavyHitters hitters = new HeavyHitters(CAPACITY, 1);
+		for (int i = 0; i < 10; i++) hitters.add("w" + i, i + 1);
+		hitters.add("w3", 5);
+
+		List<HeavyHitters.Entry> top = hitters.top(3);
+		assertEquals(3, top.size());
+		assertEquals("w9", top.get(0).item);
+		assertEquals(10, top.get(0).count);
+		// Égalité de compte (w3 = w8 = 9) : ordre alphabétique
+		assertEquals("w3", top.get(1).item);
+		assertEquals(9, top.get(1).count);
+		assertEquals("w8", top.get(2).item);
+		for (HeavyHitters.Entry entry : top) assertEquals(0, entry.error);
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	/**
+	 * Flux à longue traîne : quelques éléments fréquents communs, beaucoup d'éléments rares
+	 * (dont une partie propre à chaque thread).
+	 */
+	private static String zipf(Random random, int thread) {
+		int rank = (int) Math.floor(Math.pow(400, random.nextDouble()));
+		return rank < 50 ? "w" + rank : "t" + thread + "_" + rank;
+	}
+}
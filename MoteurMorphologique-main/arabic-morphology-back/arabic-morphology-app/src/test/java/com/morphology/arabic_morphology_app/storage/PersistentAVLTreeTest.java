@@ -0,0 +1,79 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Une version publiée n'est jamais modifiée : chaque chargement en bloc en publie une nouvelle.
+ */
+class PersistentAVLTreeTest {
+
+	@Test
+	void oldVersionsAreUnchangedAfterBulkLoads() {
+		PersistentAVLTree tree = new PersistentAVLTree();
+		TreeSet<String> model = new TreeSet<>();
+		List<PersistentAVLTree.Tree> versions = new ArrayList<>();
+		List<List<String>> contents = new ArrayList<>();
+		versions.add(tree.version());
+		contents.add(new ArrayList<>(model));
+
+		Random random = new Random(11);
+		for (int step = 0; step < 40; step++) {
+			TreeSet<String> batch = new TreeSet<>();
+			int count = random.nextInt(30);
+			for (int i = 0; i < count; i++) batch.add(String.format("k%03d", random.nextInt(500)));
+			tree.bulkLoad(batch.toArray(new String[0]));
+			model.addAll(batch); // Les racines déjà présentes sont conservées
+			versions.add(tree.version());
+			contents.add(new ArrayList<>(model));
+		}
+
+		// Chaque version relue après tous les chargements correspond à son état de publication
+		for (int v = 0; v < versions.size(); v++) {
+			assertEquals(contents.get(v), PersistentAVLTree.roots(versions.get(v)), "version " + v);
+		}
+		assertEquals(new ArrayList<>(model), tree.getAllRoots());
+		assertBalanced(tree.exportTree());
+	}
+
+	@Test
+	void rootDataIsSharedBetweenVersions() {
+		PersistentAVLTree tree = new PersistentAVLTree();
+		tree.bulkLoad(new String[]{"درس", "قول", "كتب"});
+		AVLTree.Node kept = tree.find("قول");
+		int id = kept.id;
+		kept.recordDerivative("قائِل");
+
+		PersistentAVLTree.Tree before = tree.version();
+		tree.bulkLoad(new String[]{"سعي", "قول", "وعد"});
+
+		assertSame(kept, tree.find("قول"));
+		assertEquals(id, tree.find("قول").id);
+		assertEquals(1, tree.find("قول").getValidatedDerivatives().size());
+		assertEquals(List.of("درس", "قول", "كتب"), PersistentAVLTree.roots(before));
+		assertEquals(List.of("درس", "سعي", "قول", "كتب", "وعد"), tree.getAllRoots());
+		assertEquals(5, tree.getAllNodes().stream().mapToInt(node -> node.id).distinct().count());
+	}
+
+	/**
+	 * Vérifie l'équilibre AVL et les tailles de sous-arbres d'une copie exportée.
+	 * @return La hauteur du sous-arbre.
+	 */
+	private static int assertBalanced(AVLTree.Node node) {
+		if (node == null) return 0;
+		int left = assertBalanced(node.left);
+		int right = assertBalanced(node.right);
+		assertTrue(Math.abs(left - right) <= 1, "déséquilibre en " + node.root);
+		assertEquals(1 + Math.max(left, right), node.height);
+		assertEquals(1 + (node.left == null ? 0 : node.left.size) + (node.right == null ? 0 : node.right.size), node.size);
+		return node.height;
+	}
+}
@@ -0,0 +1,139 @@
+package com.morphology.arabic_morphology_app.storage;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Statistiques d'ordre des trois stockages de racines, comparées à une liste triée :
+ * rang, sélection, pages et intervalles, après un premier chargement puis un second qui
+ * fusionne de nouvelles racines (et en répète d'anciennes) avec les existantes.
+ */
+class RootStoreOrderStatisticsTest {
+
+	/** Lettres codables par la table compacte, et quelques caractères hors de son alphabet. */
+	private static final String LETTERS = "ءأإابتثجحخدذرزسشصضطظعغفقكلمنهوىي";
+	private static final String OTHERS = "یکa";
+
+	@ParameterizedTest
+	@EnumSource(RootStore.Kind.class)
+	void orderStatisticsMatchSortedModel(RootStore.Kind kind) {
+		Random random = new Random(23);
+		TreeSet<String> all = new TreeSet<>();
+		while (all.size() < 600) all.add(randomRoot(random));
+		List<String> first = new ArrayList<>();
+		List<String> second = new ArrayList<>();
+		for (String root : all) (random.nextInt(3) == 0 ? second : first).add(root);
+		for (int i = 0; i < first.size(); i += 5) second.add(first.get(i)); // Déjà présentes
+		second.sort(null);
+
+		RootStore store = create(kind);
+		TreeSet<String> model = new TreeSet<>();
+		assertMatchesModel(store, model, random);
+
+		store.bulkLoad(first.toArray(new String[0]));
+		model.addAll(first);
+		assertMatchesModel(store, model, random);
+
+		store.bulkLoad(second.toArray(new String[0]));
+		model.addAll(second);
+		assertMatchesModel(store, model, random);
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static RootStore create(RootStore.Kind kind) {
+		return switch (kind) {
+			case AVL -> new AVLTree();
+			case PERSISTENT -> new PersistentAVLTree();
+			case PACKED -> new PackedRootTable();
+		};
+	}
+
+	private static void assertMatchesModel(RootStore store, TreeSet<String> model, Random random) {
+		List<String> sorted = new ArrayList<>(model);
+		int n = sorted.size();
+		assertEquals(n, store.size());
+		assertEquals(sorted, store.getAllRoots());
+
+		List<String> visited = new ArrayList<>();
+		store.forEachRoot((id, root) -> {
+			assertEquals(id, store.find(root).id, root);
+			visited.add(root);
+		});
+		assertEquals(sorted, visited);
+
+		// Sélection et rang des racines présentes, sélection hors bornes
+		for (int k = -1; k <= n; k++) {
+			String expected = k >= 0 && k < n ? sorted.get(k) : null;
+			assertEquals(expected, store.select(k), "select " + k);
+			if (expected != null) assertEquals(k, store.rank(expected), "rank " + expected);
+		}
+
+		// Rang et appartenance de racines absentes ou quelconques
+		List<String> probes = new ArrayList<>(List.of("", "ء", "\uFFFF"));
+		for (int i = 0; i < 100; i++) probes.add(randomRoot(random));
+		for (String probe : probes) {
+			assertEquals(model.headSet(probe).size(), store.rank(probe), "rank " + probe);
+			assertEquals(model.contains(probe), store.contains(probe), "contains " + probe);
+		}
+
+		// Pages, bornes comprises
+		for (int offset : new int[]{-3, 0, 1, n / 2, n - 1, n, n + 5}) {
+			for (int limit : new int[]{-1, 0, 1, 7, n, Integer.MAX_VALUE}) {
+				int from = Math.max(0, offset);
+				int to = (int) Math.min(n, (long) from + Math.max(0, limit));
+				List<String> expected = from < to ? sorted.subList(from, to) : List.of();
+				assertEquals(expected, store.getRoots(offset, limit), "page " + offset + ", " + limit);
+			}
+		}
+
+		// Intervalles : bornes absentes, présentes, hors de l'ensemble ou inversées
+		List<String> bounds = new ArrayList<>();
+		bounds.add(null);
+		bounds.add("");
+		bounds.add("\uFFFF");
+		for (int i = 0; i < 6; i++) bounds.add(randomRoot(random));
+		if (n > 0) {
+			bounds.add(sorted.get(0));
+			bounds.add(sorted.get(n / 3));
+			bounds.add(sorted.get(n - 1));
+		}
+		for (String from : bounds) {
+			for (String to : bounds) {
+				List<String> inRange = new ArrayList<>();
+				for (String root : sorted) {
+					if ((from == null || root.compareTo(from) >= 0) && (to == null || root.compareTo(to) <= 0)) {
+						inRange.add(root);
+					}
+				}
+				for (int limit : new int[]{0, 5, Integer.MAX_VALUE}) {
+					List<String> expected = inRange.subList(0, Math.min(limit, inRange.size()));
+					assertEquals(expected, store.getRange(from, to, limit), "range " + from + ".." + to + ", " + limit);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Racine de 1 à 7 lettres : au-delà de 5 lettres ou hors alphabet, la table compacte
+	 * la range en débordement.
+	 */
+	private static String randomRoot(Random random) {
+		int length = 1 + random.nextInt(random.nextInt(8) == 0 ? 7 : 4);
+		StringBuilder root = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			String alphabet = random.nextInt(20) == 0 ? OTHERS : LETTERS;
+			root.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return root.toString();
+	}
+}
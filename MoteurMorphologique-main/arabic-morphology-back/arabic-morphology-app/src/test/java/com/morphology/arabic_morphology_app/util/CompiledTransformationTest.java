@@ -0,0 +1,87 @@
+package com.morphology.arabic_morphology_app.util;
+
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Le regroupement des règles "replace" dans des automates d'Aho-Corasick doit donner
+ * exactement le résultat des String.replace appliqués un à un, dans l'ordre.
+ */
+class CompiledTransformationTest {
+
+	@Test
+	void overlappingPatternsKeepSequentialOrder() {
+		assertSameAsSequential("abc", replace("ab", "x"), replace("bc", "y"));
+		assertSameAsSequential("abc", replace("bc", "y"), replace("ab", "x"));
+		assertSameAsSequential("aaaa", replace("aa", "b"), replace("a", "c"));
+	}
+
+	@Test
+	void replacementOutputCanFeedALaterRule() {
+		assertSameAsSequential("abab", replace("a", "b"), replace("b", "c"));
+		assertSameAsSequential("وو", replace("و", "ا"), replace("اا", "آ"));
+	}
+
+	@Test
+	void emptyReplacementJoinsNeighbours() {
+		assertSameAsSequential("axbxc", replace("x", ""), replace("ab", "y"), replace("bc", "z"));
+		assertSameAsSequential("abc", replace("", "-"), replace("b", "x"));
+	}
+
+	@Test
+	void replaceFinalIsAppliedInPlace() {
+		assertSameAsSequential("قاوِل", replace("و", "ئ"), replaceFinal("ء"), replace("ء", "ى"));
+	}
+
+	@Test
+	void randomRuleListsMatchSequentialReplace() {
+		Random random = new Random(42);
+		for (int i = 0; i < 5000; i++) {
+			List<TransformationRule> rules = new ArrayList<>();
+			int count = 1 + random.nextInt(5);
+			for (int r = 0; r < count; r++) {
+				rules.add(random.nextInt(8) == 0
+						? replaceFinal(randomString(random, 0, 2))
+						: replace(randomString(random, 1, 3), randomString(random, 0, 2)));
+			}
+			assertSameAsSequential(randomString(random, 0, 10), rules.toArray(new TransformationRule[0]));
+		}
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static void assertSameAsSequential(String word, TransformationRule... rules) {
+		String expected = word;
+		for (TransformationRule rule : rules) {
+			if ("replace_final".equals(rule.getType())) {
+				if (!expected.isEmpty()) expected = expected.substring(0, expected.length() - 1) + rule.getTo();
+			} else {
+				expected = expected.replace(rule.getFrom(), rule.getTo());
+			}
+		}
+		assertEquals(expected, CompiledTransformation.compile(List.of(rules)).apply(word), "mot « " + word + " »");
+	}
+
+	private static TransformationRule replace(String from, String to) {
+		return new TransformationRule("replace", from, to, 0);
+	}
+
+	private static TransformationRule replaceFinal(String to) {
+		return new TransformationRule("replace_final", null, to, 0);
+	}
+
+	private static String randomString(Random random, int min, int max) {
+		StringBuilder sb = new StringBuilder();
+		int length = min + random.nextInt(max - min + 1);
+		for (int i = 0; i < length; i++) sb.append("abc".charAt(random.nextInt(3)));
+		return sb.toString();
+	}
+}
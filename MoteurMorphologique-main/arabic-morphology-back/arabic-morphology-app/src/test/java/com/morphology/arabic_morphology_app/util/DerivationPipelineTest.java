@@ -0,0 +1,215 @@
+package com.morphology.arabic_morphology_app.util;
+
+import com.morphology.arabic_morphology_app.model.RootType;
+import com.morphology.arabic_morphology_app.model.TransformationRule;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Le chemin de génération compilé (gabarit puis pipeline pré-résolu) doit produire exactement
+ * le mot de l'ancien applyRule : remplacements successifs de la règle brute, groupes cherchés
+ * par clé à chaque appel, repli lafif → naqis, exceptions par racine et Tanwin de فاعل.
+ */
+class DerivationPipelineTest {
+
+	@Test
+	void shippedLexiconMatchesBaseline() throws IOException {
+		List<String> roots = new ArrayList<>();
+		for (String line : resourceLines("racines.txt")) {
+			if (!line.startsWith("#")) roots.add(line);
+		}
+		Map<String, String> schemes = new LinkedHashMap<>();
+		for (String line : resourceLines("schemes.txt")) {
+			String[] p = line.split("=");
+			if (p.length == 2) schemes.put(p[0].trim(), p[1].trim());
+		}
+		Map<String, List<TransformationRule>> groups = new HashMap<>();
+		for (String line : resourceLines("transformations.txt")) {
+			if (line.startsWith("#") || !line.contains(":")) continue;
+			String[] parts = line.split(":", 2);
+			groups.put(parts[0].trim(), parseRules(parts[1].trim())); // Clé dupliquée : la dernière l'emporte
+		}
+
+		Set<RootType> types = EnumSet.noneOf(RootType.class);
+		int pairs = 0;
+		for (String root : roots) {
+			types.add(RootAnalyzer.detectRootType(root));
+			for (Map.Entry<String, String> scheme : schemes.entrySet()) {
+				assertSameAsBaseline(root, scheme.getKey(), scheme.getValue(), groups);
+				pairs++;
+			}
+		}
+		assertEquals(96, pairs);
+		assertEquals(EnumSet.allOf(RootType.class), types);
+	}
+
+	@Test
+	void eachRootTypeMatchesBaseline() {
+		Map<String, List<TransformationRule>> groups = new HashMap<>();
+		// فاعل : pas de groupe lafif (repli sur naqis), Tanwin en post-traitement
+		groups.put("regular_فاعل", List.of(replace("ِب", "ِبٌ")));
+		groups.put("mithal_فاعل", List.of(replace("وا", "وَا")));
+		groups.put("ajwaf_فاعل", List.of(replace("او", "ائ"), replace("اي", "ائ")));
+		groups.put("naqis_فاعل", List.of(replace("ِو", "ي"), replace("ِي", "ي")));
+		// مفعول : groupe lafif présent, appliqué après mithal et à la place de naqis
+		groups.put("mithal_مفعول", List.of(replace("مَوْ", "مُو")));
+		groups.put("naqis_مفعول", List.of(replace("ُوو", "ُوّ")));
+		groups.put("lafif_مفعول", List.of(replace("ُوي", "ِيّ")));
+		// Exception propre à une racine, appliquée après les groupes de son type
+		groups.put("exception_قول_فاعل", List.of(replace("ائِل", "ائِلٌ")));
+
+		Map<RootType, String[]> rootsByType = new LinkedHashMap<>();
+		rootsByType.put(RootType.REGULAR, new String[]{"كتب", "دخل"});
+		rootsByType.put(RootType.MITHAL, new String[]{"وعد", "وقف"});
+		rootsByType.put(RootType.AJWAF, new String[]{"قول", "بيع", "قام"});
+		rootsByType.put(RootType.NAQIS, new String[]{"دعو", "رمي", "سعى"});
+		rootsByType.put(RootType.LAFIF, new String[]{"وقي", "روي", "وفي"});
+		assertEquals(EnumSet.allOf(RootType.class), rootsByType.keySet());
+
+		for (Map.Entry<RootType, String[]> entry : rootsByType.entrySet()) {
+			for (String root : entry.getValue()) {
+				assertEquals(entry.getKey(), RootAnalyzer.detectRootType(root), root);
+				assertSameAsBaseline(root, "فاعل", "{1}ا{2}ِ{3}", groups);
+				assertSameAsBaseline(root, "مفعول", "مَ{1}ْ{2}ُو{3}", groups);
+				assertSameAsBaseline(root, "مفعل", "مَ{1}ْ{2}{3}", groups); // Aucun groupe
+			}
+		}
+
+		// Quelques valeurs attendues, indépendamment de la référence
+		String faail = "{1}ا{2}ِ{3}";
+		String mafool = "مَ{1}ْ{2}ُو{3}";
+		assertEquals("كاتِبٌ", derive("كتب", "فاعل", faail, groups));
+		assertEquals("قائِلٌ", derive("قول", "فاعل", faail, groups), "ajwaf puis exception de la racine");
+		assertEquals("بائِع", derive("بيع", "فاعل", faail, groups), "exception limitée à sa racine");
+		assertEquals("داعٍ", derive("دعو", "فاعل", faail, groups), "Tanwin");
+		assertEquals("وَاقٍ", derive("وقي", "فاعل", faail, groups), "lafif : mithal puis repli sur naqis");
+		assertEquals("مُوعُود", derive("وعد", "مفعول", mafool, groups));
+		assertEquals("مَدْعُوّ", derive("دعو", "مفعول", mafool, groups));
+		assertEquals("مُوقِيّ", derive("وقي", "مفعول", mafool, groups), "lafif : mithal puis lafif");
+		assertEquals("مَرْوِيّ", derive("روي", "مفعول", mafool, groups), "lafif présent : naqis ignoré");
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static void assertSameAsBaseline(String root, String schemeName, String rule,
+											 Map<String, List<TransformationRule>> groups) {
+		assertEquals(baseline(root, schemeName, rule, groups), derive(root, schemeName, rule, groups),
+				root + " × " + schemeName);
+	}
+
+	/**
+	 * Chemin compilé, tel que le résout le service : gabarit, puis pipeline du type de la racine.
+	 */
+	private static String derive(String root, String schemeName, String rule,
+								 Map<String, List<TransformationRule>> groups) {
+		Map<String, CompiledTransformation> compiled = new HashMap<>();
+		Map<String, CompiledTransformation> exceptions = new HashMap<>();
+		for (Map.Entry<String, List<TransformationRule>> e : groups.entrySet()) {
+			CompiledTransformation transformation = CompiledTransformation.compile(e.getValue());
+			compiled.put(e.getKey(), transformation);
+			TransformationKey key = TransformationKey.parse(e.getKey());
+			if (key != null && key.isException() && key.getScheme().equals(schemeName)) {
+				exceptions.put(key.getExceptionRoot(), transformation);
+			}
+		}
+		String word = SchemeTemplate.compile(rule).fill(RootAnalyzer.extractOriginalLetters(root));
+		return DerivationPipeline.resolve(RootAnalyzer.detectRootType(root), schemeName, compiled, exceptions)
+				.apply(root, word);
+	}
+
+	/**
+	 * Référence : l'ancien applyRule, remplacements successifs et recherche des groupes par clé.
+	 */
+	private static String baseline(String root, String schemeName, String rule,
+								   Map<String, List<TransformationRule>> groups) {
+		char[] letters = RootAnalyzer.extractOriginalLetters(root);
+		String word = rule.replace("{1}", String.valueOf(letters[0]))
+				.replace("{2}", String.valueOf(letters[1]))
+				.replace("{3}", String.valueOf(letters[2]));
+
+		RootType type = RootAnalyzer.detectRootType(root);
+		if (type == RootType.LAFIF) {
+			word = applyGroup(word, groups.get("mithal_" + schemeName));
+			word = applyGroup(word, groups.get("lafif_" + schemeName));
+			if (!groups.containsKey("lafif_" + schemeName)) {
+				word = applyGroup(word, groups.get("naqis_" + schemeName));
+			}
+		} else {
+			word = applyGroup(word, groups.get(type.name().toLowerCase() + "_" + schemeName));
+		}
+		word = applyGroup(word, groups.get("exception_" + root + "_" + schemeName));
+
+		if ("فاعل".equals(schemeName) && (type == RootType.NAQIS || type == RootType.LAFIF || type == RootType.AJWAF)) {
+			if (word.endsWith("ي")) word = word.substring(0, word.length() - 1) + "ٍ";
+		}
+		return word;
+	}
+
+	private static String applyGroup(String word, List<TransformationRule> rules) {
+		if (rules == null) return word;
+		for (TransformationRule rule : rules) {
+			if ("replace_final".equals(rule.getType())) {
+				if (!word.isEmpty()) word = word.substring(0, word.length() - 1) + rule.getTo();
+			} else {
+				word = word.replace(rule.getFrom(), rule.getTo());
+			}
+		}
+		return word;
+	}
+
+	private static List<String> resourceLines(String name) throws IOException {
+		InputStream is = DerivationPipelineTest.class.getClassLoader().getResourceAsStream(name);
+		assertNotNull(is, name);
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty()) lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Format de transformations.txt : replace=a>b;replace_final=c
+	 */
+	private static List<TransformationRule> parseRules(String text) {
+		List<TransformationRule> rules = new ArrayList<>();
+		for (String op : text.split(";")) {
+			op = op.trim();
+			if (op.startsWith("replace_final=")) {
+				rules.add(replaceFinal(op.substring("replace_final=".length()).trim()));
+			} else if (op.startsWith("replace=")) {
+				String[] fromTo = op.substring("replace=".length()).split(">", 2);
+				rules.add(replace(fromTo[0].trim(), fromTo[1].trim()));
+			}
+		}
+		return rules;
+	}
+
+	private static TransformationRule replace(String from, String to) {
+		return new TransformationRule("replace", from, to, 0);
+	}
+
+	private static TransformationRule replaceFinal(String to) {
+		return new TransformationRule("replace_final", null, to, 0);
+	}
+}
@@ -0,0 +1,82 @@
+package com.morphology.arabic_morphology_app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Un gabarit compilé doit construire exactement le mot des trois String.replace
+ * ("{1}", "{2}", "{3}") appliqués à la règle brute, et l'analyse inverse doit en retrouver les lettres.
+ */
+class SchemeTemplateTest {
+
+	private static final String[] SHIPPED_RULES = {
+			"{1}ا{2}ِ{3}", "مَ{1}ْ{2}ُو{3}", "تَ{1}ْ{2}ِي{3}", "اِ{1}ْتَ{2}{3}", "اِسْتَ{1}ْ{2}{3}", "مَ{1}ْ{2}{3}َة"
+	};
+
+	@Test
+	void shippedRulesMatchSequentialReplace() {
+		for (String rule : SHIPPED_RULES) {
+			for (String root : new String[]{"كتب", "وعد", "قال", "دعو", "وقي"}) {
+				assertSameAsReplace(rule, RootAnalyzer.extractOriginalLetters(root));
+			}
+		}
+	}
+
+	@Test
+	void repeatedMissingAndMalformedPlaceholders() {
+		char[] letters = {'ف', 'ع', 'ل'};
+		assertSameAsReplace("{1}{2}{2}{3}", letters);
+		assertSameAsReplace("{3}{1}", letters);
+		assertSameAsReplace("مِفْعال", letters);
+		assertSameAsReplace("", letters);
+		assertSameAsReplace("{4}{1}{0}", letters);
+		assertSameAsReplace("{{1}}{2", letters);
+		assertSameAsReplace("{1}}{3}{", letters);
+	}
+
+	@Test
+	void randomRulesMatchSequentialReplace() {
+		Random random = new Random(3);
+		String alphabet = "{}1234اَ";
+		char[] letters = {'ك', 'ت', 'ب'};
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder rule = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int k = 0; k < length; k++) rule.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			assertSameAsReplace(rule.toString(), letters);
+		}
+	}
+
+	@Test
+	void matchRecoversTheRootLetters() {
+		for (String rule : SHIPPED_RULES) {
+			SchemeTemplate template = SchemeTemplate.compile(rule);
+			char[] letters = {'د', 'خ', 'ل'};
+			assertArrayEquals(letters, template.match(template.fill(letters)), rule);
+		}
+
+		SchemeTemplate repeated = SchemeTemplate.compile("{1}{2}{2}{3}");
+		assertNull(repeated.match("كتدب"), "lettre répétée incohérente");
+		assertArrayEquals(new char[]{'ك', 'ت', 'ب'},
+				repeated.match("ك" + SchemeTemplate.ANY_LETTER + "تب"), "joker sur une position répétée");
+		assertNull(SchemeTemplate.compile("مَ{1}ْ{2}ُو{3}").match("مَكْتُوبٌ"), "longueur différente");
+	}
+
+	// ==========================================
+	//              UTILITAIRES
+	// ==========================================
+
+	private static void assertSameAsReplace(String rule, char[] letters) {
+		String expected = rule.replace("{1}", String.valueOf(letters[0]))
+				.replace("{2}", String.valueOf(letters[1]))
+				.replace("{3}", String.valueOf(letters[2]));
+		SchemeTemplate template = SchemeTemplate.compile(rule);
+		assertEquals(expected, template.fill(letters), "règle « " + rule + " »");
+		assertEquals(rule, template.getRule());
+	}
+}